@@ -0,0 +1,210 @@
+package boggle;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is the BatchSolver class. It solves boards without opening the game window, reading one board per line from a
+ * file or from standard input (see the Boards class for the format). Boards are solved on a pool of worker threads
+ * that all share the one Dictionary, and each worker reuses its own search arrays from board to board. A result line
+ * is written for every board as soon as it and the boards before it are done, so output comes out in input order:
+ *
+ *   board  word count  total score  [words]
+ *
+ * Timings and the number of boards solved per second are printed to standard error at the end.
+ *
+ * With --torus the boards wrap around at the edges. With --cache the last n distinct boards are remembered, so a board
+ * that comes up again, even rotated or mirrored, is not searched twice, and --cache-file also keeps every solved
+ * board in a file for later runs.
+ *
+ * Usage: java boggle.BatchSolver [--threads n] [--words] [--torus] [--cache n] [--cache-file file] [file]
+ */
+public class BatchSolver {
+
+    private final ExecutorService _workers;
+    private final int _maxPending;
+    private final boolean _printWords;
+    private final boolean _wrap;
+    private final SolutionCache _cache;
+    private final LongAdder _solveTime;
+    private final LongAdder _formatTime;
+    private final LongAdder _wordCount;
+    private final LongAdder _boards;
+    private final LongAdder _failures;
+
+    /*
+     * Constructor for BatchSolver
+     */
+    public BatchSolver(int threads, boolean printWords, boolean wrap) {
+        this(threads, printWords, wrap, null);
+    }
+
+    /*
+     * Constructor for a BatchSolver that looks boards up in a cache before solving them
+     */
+    public BatchSolver(int threads, boolean printWords, boolean wrap, SolutionCache cache) {
+        _workers = Executors.newFixedThreadPool(threads);
+        //enough boards are kept in flight to keep every worker busy without reading the whole input into memory
+        _maxPending = threads * 16;
+        _printWords = printWords;
+        _wrap = wrap;
+        _cache = cache;
+        _solveTime = new LongAdder();
+        _formatTime = new LongAdder();
+        _wordCount = new LongAdder();
+        _boards = new LongAdder();
+        _failures = new LongAdder();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean printWords = false;
+        boolean wrap = false;
+        int cacheSize = 0;
+        String cacheFile = null;
+        String file = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--words":
+                    printWords = true;
+                    break;
+                case "--torus":
+                    wrap = true;
+                    break;
+                case "--cache":
+                    cacheSize = Integer.parseInt(args[++i]);
+                    break;
+                case "--cache-file":
+                    cacheFile = args[++i];
+                    break;
+                default:
+                    //anything else is the input file, but a mistyped option should not be taken for one
+                    if (args[i].startsWith("--") || file != null) {
+                        System.err.println((file != null ? "Only one input file can be given, not " : "Unknown option ")
+                                + args[i]);
+                        System.exit(1);
+                    }
+                    file = args[i];
+                    break;
+            }
+        }
+
+        long start = System.nanoTime();
+        Dictionary dictionary = Dictionary.getInstance();
+        long loaded = System.nanoTime();
+
+        SolutionCache cache = null;
+        if (cacheFile != null) {
+            cache = new SolutionCache(Math.max(1, cacheSize == 0 ? SolutionCache.DEFAULT_SIZE : cacheSize),
+                    new File(cacheFile));
+        }
+        else if (cacheSize > 0) {
+            cache = new SolutionCache(cacheSize);
+        }
+
+        InputStream input = file == null ? System.in : new FileInputStream(file);
+        BatchSolver batch = new BatchSolver(Math.max(1, threads), printWords, wrap, cache);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.US_ASCII));
+             PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out,
+                     StandardCharsets.US_ASCII), 1 << 16))) {
+            batch.run(reader, writer);
+        }
+        long finished = System.nanoTime();
+
+        batch.printReport(dictionary, loaded - start, finished - loaded);
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    /*
+     * This method reads every board, hands it to a worker, and writes the results in the order the boards came in
+     */
+    public void run(BufferedReader reader, PrintWriter writer) throws Exception {
+        ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+        String line;
+
+        try {
+            while ((line = reader.readLine()) != null) {
+                String board = line.trim();
+                if (board.isEmpty() || board.startsWith("#")) {
+                    continue;
+                }
+                pending.add(_workers.submit(() -> this.solve(board)));
+                if (pending.size() >= _maxPending) {
+                    writer.println(pending.poll().get());
+                }
+            }
+            while (!pending.isEmpty()) {
+                writer.println(pending.poll().get());
+            }
+        }
+        finally {
+            _workers.shutdown();
+        }
+    }
+
+    /*
+     * This method solves one board and returns its result line. It runs on a worker thread.
+     */
+    private String solve(String text) {
+        long start = System.nanoTime();
+        Solution solution;
+        try {
+            //the board is searched on this worker only, the pool already keeps every core busy
+            char[][] board = Boards.parse(text);
+            if (_cache != null) {
+                solution = _cache.solve(board, _wrap, null);
+            }
+            else {
+                solution = new BoggleSolver(board, BoardTopology.of(board, _wrap), null).getSolution();
+            }
+        }
+        catch (IllegalArgumentException | IOException e) {
+            _failures.increment();
+            return text + "\tERROR\t" + e.getMessage();
+        }
+        long solved = System.nanoTime();
+
+        StringBuilder result = new StringBuilder(text.length() + 16);
+        result.append(text).append('\t').append(solution.size()).append('\t').append(solution.getTotalScore());
+        if (_printWords) {
+            result.append('\t').append(String.join(",", solution.getWords()));
+        }
+        long formatted = System.nanoTime();
+
+        _solveTime.add(solved - start);
+        _formatTime.add(formatted - solved);
+        _wordCount.add(solution.size());
+        _boards.increment();
+        return result.toString();
+    }
+
+    /*
+     * This method prints how long each part of the run took and how many boards were solved per second
+     */
+    private void printReport(Dictionary dictionary, long loadTime, long runTime) {
+        System.err.printf("Boards solved:     %d (%d failed)%n", _boards.sum(), _failures.sum());
+        System.err.printf("Words found:       %d%n", _wordCount.sum());
+        System.err.printf("Dictionary load:   %.1f ms (%s)%n", loadTime / 1e6, dictionary.isFromImage() ? "image" : "text");
+        //solve and format times are added up over every worker, so they can be more than the wall time
+        System.err.printf("Solve time:        %.1f ms%n", _solveTime.sum() / 1e6);
+        System.err.printf("Format time:       %.1f ms%n", _formatTime.sum() / 1e6);
+        System.err.printf("Wall time:         %.1f ms%n", runTime / 1e6);
+        System.err.printf("Throughput:        %.0f boards/s%n", _boards.sum() / (runTime / 1e9));
+        if (_cache != null) {
+            System.err.printf("Cache:             %d hits, %d disk hits, %d misses, %d evictions (%.1f%% hit rate)%n",
+                    _cache.getHits(), _cache.getDiskHits(), _cache.getMisses(), _cache.getEvictions(),
+                    _cache.getHitRate() * 100);
+        }
+    }
+}
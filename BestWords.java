@@ -0,0 +1,148 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This is the BestWords class. It keeps the best words a search has found so far, up to a fixed number, in a heap
+ * with the worst of them on top, so a new word only has to be compared with that one to know if it makes the cut.
+ * Longer words are worth at least as many points as shorter ones, so words are ranked longest first, and words of the
+ * same length alphabetically. That makes the words kept the same whatever order the board is searched in.
+ */
+final class BestWords {
+
+    private final String[] _words;
+    private final int[][] _paths;
+    private int _size;
+
+    /*
+     * Constructor for BestWords
+     */
+    BestWords(int capacity) {
+        _words = new String[capacity];
+        _paths = new int[capacity][];
+        _size = 0;
+    }
+
+    /*
+     * This method tells whether as many words as asked for have been found, after which a word has to beat the worst
+     * one to be kept
+     */
+    boolean isFull() {
+        return _size == _words.length;
+    }
+
+    /*
+     * This method returns the length of the worst word kept. A word shorter than this can never be kept once the heap
+     * is full.
+     */
+    int shortest() {
+        return _size == 0 ? 0 : _words[0].length();
+    }
+
+    /*
+     * This method keeps the first length letters of word, found on the given cells, if it is one of the best words so
+     * far. Nothing is allocated for a word that does not make the cut.
+     */
+    void offer(char[] word, int[] path, int length) {
+        if (_size < _words.length) {
+            _words[_size] = new String(word, 0, length);
+            _paths[_size] = Arrays.copyOf(path, length);
+            this.siftUp(_size++);
+        }
+        else if (compare(word, length, _words[0]) > 0) {
+            _words[0] = new String(word, 0, length);
+            _paths[0] = Arrays.copyOf(path, length);
+            this.siftDown(0);
+        }
+    }
+
+    /*
+     * This method returns the words that were kept as a Solution, best first
+     */
+    Solution toSolution(int columns) {
+        Integer[] order = new Integer[_size];
+        for (int n = 0; n < _size; n++) {
+            order[n] = n;
+        }
+        Arrays.sort(order, (a, b) -> compare(_words[b], _words[a]));
+
+        ArrayList<String> words = new ArrayList<>(_size);
+        ArrayList<int[]> paths = new ArrayList<>(_size);
+        for (int n : order) {
+            words.add(_words[n]);
+            paths.add(_paths[n]);
+        }
+        return new Solution(words, paths, columns);
+    }
+
+    /*
+     * This method moves a word up the heap until its parent is worse than it
+     */
+    private void siftUp(int n) {
+        while (n > 0) {
+            int parent = (n - 1) >>> 1;
+            if (compare(_words[parent], _words[n]) <= 0) {
+                return;
+            }
+            this.swap(parent, n);
+            n = parent;
+        }
+    }
+
+    /*
+     * This method moves a word down the heap until both of its children are better than it
+     */
+    private void siftDown(int n) {
+        while (true) {
+            int worst = n;
+            int left = 2 * n + 1;
+            int right = left + 1;
+            if (left < _size && compare(_words[left], _words[worst]) < 0) {
+                worst = left;
+            }
+            if (right < _size && compare(_words[right], _words[worst]) < 0) {
+                worst = right;
+            }
+            if (worst == n) {
+                return;
+            }
+            this.swap(worst, n);
+            n = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String word = _words[a];
+        _words[a] = _words[b];
+        _words[b] = word;
+        int[] path = _paths[a];
+        _paths[a] = _paths[b];
+        _paths[b] = path;
+    }
+
+    /*
+     * This method ranks two words, returning a positive number if the first is the better one
+     */
+    private static int compare(String a, String b) {
+        if (a.length() != b.length()) {
+            return a.length() - b.length();
+        }
+        return b.compareTo(a);
+    }
+
+    /*
+     * This method ranks the first length letters of word against a kept word without making a String of them
+     */
+    private static int compare(char[] word, int length, String other) {
+        if (length != other.length()) {
+            return length - other.length();
+        }
+        for (int i = 0; i < length; i++) {
+            if (word[i] != other.charAt(i)) {
+                return other.charAt(i) - word[i];
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,37 @@
+package boggle;
+
+/**
+ * This is the BitBoard class. It describes a board of at most 64 cells as bitmasks, with bit n standing for cell n:
+ * the cells that hold each letter, and for every cell the cells next to it and the letters next to it. With these a
+ * solver can find where a path can go next with a few ANDs, taking only the letters the trie node has children for,
+ * instead of looking at the neighbors one at a time. The masks are made once per board before the search starts.
+ */
+final class BitBoard {
+
+    //the cells holding each letter
+    final long[] _letterCells;
+    //the cells next to each cell, copied from the topology so they sit with the other masks
+    final long[] _neighborCells;
+    //the letters on the cells next to each cell
+    final int[] _neighborLetters;
+
+    /*
+     * Constructor for BitBoard. letters holds the letter of each cell from 0 to 25.
+     */
+    BitBoard(BoardTopology topology, int[] letters) {
+        if (!topology.fitsInLong()) {
+            throw new IllegalArgumentException("A bit board can have at most " + Long.SIZE + " cells");
+        }
+        _letterCells = new long[Constants.ALPHABET_SIZE];
+        _neighborCells = new long[letters.length];
+        _neighborLetters = new int[letters.length];
+
+        for (int cell = 0; cell < letters.length; cell++) {
+            _letterCells[letters[cell]] |= 1L << cell;
+            _neighborCells[cell] = topology.neighborMask(cell);
+            for (int neighbor : topology.neighbors(cell)) {
+                _neighborLetters[cell] |= 1 << letters[neighbor];
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * This is the BoardGenerator class. It randomly picks the letters for a new board the same way the game always has:
+ * a 4x4 board is made by rolling the 16 real boggle dice, and every other size draws each letter from a string that
+ * roughly follows how common each letter is in english. Any random generator can be used, so boards can be made
+ * repeatable by passing in a seeded one.
+ *
+ * Other letter tables can be given instead, for example to see how changing a die or the alphabet string changes the
+ * boards. Dice are rolled for any board with exactly as many cells as there are dice.
+ */
+public class BoardGenerator {
+
+    /*
+     * These "dice" contain the actual letters that are used in a real boggle game. If the user selects to play
+     * the standard 4x4 game, the actual characters of the dice will be used.
+     */
+    static final String[] DICE = {
+            "AEANEG", "AHSPCO", "ASPFFK", "OBJOAB", "IOTMUC", "RYVDEL", "LREIXD", "EIUNES",
+            "WNGEEH", "LNHNRZ", "TSTIYD", "OWTOAT", "ERTTYL", "TOESSI", "TERWHV", "NUIHMQ"
+    };
+
+    //the dice are only used for the board size they were made for
+    static final int DICE_BOARD_SIZE = 4;
+
+    /*
+     * If the player is not playing 4x4, the 16 dice in the original boggle game cannot be used. In substitution,
+     * this string contains a very rough approximation of the distribution of letters based on how common they are
+     * in the english language.
+     */
+    static final String ALPHABET = "AAAABBCCDDDEEEEEEFFGGHHHIIIJJKKLLLMMNNNOOOOPPQRRRSSSSTTTTTUUUVVWWXYYZ";
+
+    private final RandomGenerator _random;
+    private final String[] _dice;
+    private final String _alphabet;
+
+    /*
+     * Constructor for BoardGenerator
+     */
+    public BoardGenerator(RandomGenerator random) {
+        this(random, DICE, ALPHABET);
+    }
+
+    /*
+     * This constructor uses the given dice and alphabet string instead of the game's. With null dice every board
+     * draws from the alphabet string.
+     */
+    public BoardGenerator(RandomGenerator random, String[] dice, String alphabet) {
+        check(dice, alphabet);
+        _random = random;
+        _dice = dice == null ? null : dice.clone();
+        _alphabet = alphabet;
+    }
+
+    /*
+     * This method checks letter tables before they are used, throwing an IllegalArgumentException if the alphabet is
+     * missing or a table is empty or has anything but the letters A-Z. The dice may be null.
+     */
+    static void check(String[] dice, String alphabet) {
+        if (alphabet == null) {
+            throw new IllegalArgumentException("An alphabet string is needed");
+        }
+        if (dice != null) {
+            if (dice.length == 0) {
+                throw new IllegalArgumentException("At least one die is needed");
+            }
+            for (String die : dice) {
+                if (die == null) {
+                    throw new IllegalArgumentException("A die needs at least one letter");
+                }
+                checkLetters(die);
+            }
+        }
+        checkLetters(alphabet);
+    }
+
+    /*
+     * This method checks that a die or alphabet string has at least one letter and only the letters A-Z
+     */
+    private static void checkLetters(String letters) {
+        if (letters.isEmpty()) {
+            throw new IllegalArgumentException("A die or alphabet needs at least one letter");
+        }
+        for (int i = 0; i < letters.length(); i++) {
+            if (letters.charAt(i) < 'A' || letters.charAt(i) > 'Z') {
+                throw new IllegalArgumentException(letters + " has a character that is not A-Z");
+            }
+        }
+    }
+
+    /*
+     * This method makes a new square board of the given size
+     */
+    public char[][] generate(int size) {
+        char[][] board = new char[size][size];
+        boolean useDice = _dice != null && size * size == _dice.length;
+        ArrayList<String> dice = useDice ? new ArrayList<>(Arrays.asList(_dice)) : null;
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                //uses the "dice" method for letter selection of playing 4x4
+                if (useDice) {
+                    int n = _random.nextInt(dice.size());
+                    board[i][j] = dice.get(n).charAt(_random.nextInt(dice.get(n).length()));
+                    dice.remove(n);
+                }
+                //otherwise uses alphabet string
+                else {
+                    board[i][j] = _alphabet.charAt(_random.nextInt(_alphabet.length()));
+                }
+            }
+        }
+        return board;
+    }
+}
@@ -0,0 +1,196 @@
+package boggle;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This is the BoardKey class. It names a board in a way that does not change when the board is rotated or flipped,
+ * since a turned board has exactly the same words as the original. There are eight ways to turn a board (four
+ * rotations, each of which can also be mirrored), and the key is the one of those eight boards that comes first
+ * when their shapes and letters are compared. Two boards get equal keys exactly when one can be turned into the
+ * other.
+ *
+ * The key is kept as bytes: the rows and columns of the chosen board as big endian ints, a byte for whether the
+ * board wraps around, and then its letters row by row. A key also remembers which turn took the original board to
+ * the chosen one, so cells of the chosen board can be mapped back to the original.
+ */
+final class BoardKey {
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 1;
+
+    private final byte[] _bytes;
+    private final int _hash;
+    //the shape of the original board and the turn that takes it to the chosen board
+    private final int _sourceRows;
+    private final int _sourceColumns;
+    private final int _transform;
+
+    /*
+     * Constructor for BoardKey
+     */
+    private BoardKey(byte[] bytes, int sourceRows, int sourceColumns, int transform) {
+        _bytes = bytes;
+        _hash = Arrays.hashCode(bytes);
+        _sourceRows = sourceRows;
+        _sourceColumns = sourceColumns;
+        _transform = transform;
+    }
+
+    /*
+     * This method returns the key of a board. Every turn is compared letter by letter in place, so only the bytes
+     * of the winning one are ever made.
+     */
+    static BoardKey of(char[][] board, boolean wrap) {
+        int rows = board.length;
+        int columns = board[0].length;
+        int best = 0;
+        for (int transform = 1; transform < 8; transform++) {
+            if (compare(board, transform, best) < 0) {
+                best = transform;
+            }
+        }
+
+        boolean transposed = (best & 4) != 0;
+        int keyRows = transposed ? columns : rows;
+        int keyColumns = transposed ? rows : columns;
+        ByteBuffer bytes = ByteBuffer.allocate(HEADER_BYTES + rows * columns);
+        bytes.putInt(keyRows).putInt(keyColumns).put((byte) (wrap ? 1 : 0));
+        for (int cell = 0; cell < rows * columns; cell++) {
+            int source = sourceCell(best, rows, columns, cell);
+            bytes.put((byte) board[source / columns][source % columns]);
+        }
+        return new BoardKey(bytes.array(), rows, columns, best);
+    }
+
+    /*
+     * This method makes a key from bytes that were written out before. The key stands for the chosen board itself.
+     */
+    static BoardKey fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new BoardKey(bytes, buffer.getInt(0), buffer.getInt(Integer.BYTES), 0);
+    }
+
+    /*
+     * This method compares a board turned two ways, first by shape and then by letters
+     */
+    private static int compare(char[][] board, int first, int second) {
+        int rows = board.length;
+        int columns = board[0].length;
+        //a turn that swaps rows and columns changes the shape of a board that is not square
+        int firstRows = (first & 4) != 0 ? columns : rows;
+        int secondRows = (second & 4) != 0 ? columns : rows;
+        if (firstRows != secondRows) {
+            return Integer.compare(firstRows, secondRows);
+        }
+        for (int cell = 0; cell < rows * columns; cell++) {
+            int a = sourceCell(first, rows, columns, cell);
+            int b = sourceCell(second, rows, columns, cell);
+            int difference = board[a / columns][a % columns] - board[b / columns][b % columns];
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    /*
+     * This method takes a cell of the turned board and returns the cell of the original board it came from. The 4 bit
+     * of the transform swaps rows and columns, then the 1 bit flips the rows and the 2 bit flips the columns.
+     */
+    private static int sourceCell(int transform, int rows, int columns, int cell) {
+        int turnedColumns = (transform & 4) != 0 ? rows : columns;
+        int i = cell / turnedColumns;
+        int j = cell % turnedColumns;
+        if ((transform & 4) != 0) {
+            int swap = i;
+            i = j;
+            j = swap;
+        }
+        if ((transform & 1) != 0) {
+            i = rows - 1 - i;
+        }
+        if ((transform & 2) != 0) {
+            j = columns - 1 - j;
+        }
+        return i * columns + j;
+    }
+
+    /*
+     * This method maps a cell of the chosen board back to the cell of the original board
+     */
+    int sourceCell(int cell) {
+        return sourceCell(_transform, _sourceRows, _sourceColumns, cell);
+    }
+
+    /*
+     * This method tells whether the original board already was the chosen board, so nothing has to be mapped
+     */
+    boolean isIdentity() {
+        return _transform == 0;
+    }
+
+    /*
+     * This method returns the chosen board as letters
+     */
+    char[][] board() {
+        int rows = this.getRows();
+        int columns = this.getColumns();
+        char[][] board = new char[rows][columns];
+        for (int cell = 0; cell < rows * columns; cell++) {
+            board[cell / columns][cell % columns] = this.letter(cell);
+        }
+        return board;
+    }
+
+    /*
+     * This method returns the letter on a cell of the chosen board
+     */
+    char letter(int cell) {
+        return (char) _bytes[HEADER_BYTES + cell];
+    }
+
+    /*
+     * Getter method for the rows of the chosen board
+     */
+    int getRows() {
+        return ByteBuffer.wrap(_bytes).getInt(0);
+    }
+
+    /*
+     * Getter method for the columns of the chosen board
+     */
+    int getColumns() {
+        return ByteBuffer.wrap(_bytes).getInt(Integer.BYTES);
+    }
+
+    /*
+     * Getter method for the columns of the original board
+     */
+    int getSourceColumns() {
+        return _sourceColumns;
+    }
+
+    /*
+     * This method tells whether the board wraps around at the edges
+     */
+    boolean isWrapped() {
+        return _bytes[2 * Integer.BYTES] != 0;
+    }
+
+    /*
+     * This method returns the bytes of the key. The array is shared and must not be changed.
+     */
+    byte[] bytes() {
+        return _bytes;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof BoardKey && Arrays.equals(_bytes, ((BoardKey) other)._bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return _hash;
+    }
+}
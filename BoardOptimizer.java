@@ -0,0 +1,324 @@
+package boggle;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is the BoardOptimizer class. It searches for boards with the highest possible total score using simulated
+ * annealing. Each chain starts from a random board and keeps changing one or two tiles at a time, keeping every change
+ * that raises the score and some that lower it, less and less often as the run cools down. A 4x4 board is changed by
+ * turning a die to another face or swapping two dice, so every board it finds can be rolled with the real dice. Other
+ * sizes change tiles to letters from the game's alphabet string or swap two tiles.
+ *
+ * Several independent chains run in parallel. Boards are scored with BoggleSolver.totalScore, which reuses each
+ * thread's search arrays and keeps no words, so millions of boards can be scored without reloading anything.
+ *
+ * Usage: java boggle.BoardOptimizer [--size n] [--chains n] [--seconds n | --iterations n] [--seed n] [--keep n]
+ */
+public class BoardOptimizer {
+
+    private static final double START_TEMPERATURE = 25.0;
+    private static final double END_TEMPERATURE = 0.2;
+    //how many iterations go by between checks of the clock
+    private static final int CLOCK_INTERVAL = 256;
+
+    private final int _size;
+    private final boolean _useDice;
+    private final long _timeLimit;
+    private final long _iterations;
+    private final int _keep;
+    private final LongAdder _evaluations;
+
+    /*
+     * Constructor for BoardOptimizer. A run stops after timeLimit nanoseconds, or after the given number of iterations
+     * per chain if timeLimit is 0. Each chain reports its best keep boards. A board needs at least two cells, so
+     * that two tiles can be swapped.
+     */
+    public BoardOptimizer(int size, long timeLimit, long iterations, int keep) {
+        if (size < 2) {
+            throw new IllegalArgumentException("Boards must be at least 2x2");
+        }
+        if (keep < 1) {
+            throw new IllegalArgumentException("At least one board must be kept");
+        }
+        _size = size;
+        _useDice = size == BoardGenerator.DICE_BOARD_SIZE;
+        _timeLimit = timeLimit;
+        _iterations = iterations;
+        _keep = keep;
+        _evaluations = new LongAdder();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int size = BoardGenerator.DICE_BOARD_SIZE;
+        int chains = Runtime.getRuntime().availableProcessors();
+        long seconds = 10;
+        long iterations = 0;
+        long seed = System.nanoTime();
+        int keep = 3;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--size":
+                    size = Integer.parseInt(args[++i]);
+                    break;
+                case "--chains":
+                    chains = Integer.parseInt(args[++i]);
+                    break;
+                case "--seconds":
+                    seconds = Long.parseLong(args[++i]);
+                    break;
+                case "--iterations":
+                    iterations = Long.parseLong(args[++i]);
+                    seconds = 0;
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--keep":
+                    keep = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        if (size < 2 || keep < 1) {
+            System.err.println("--size must be at least 2 and --keep at least 1");
+            System.exit(1);
+        }
+
+        Dictionary.getInstance();
+        BoardOptimizer optimizer = new BoardOptimizer(size, seconds * 1_000_000_000L, iterations, keep);
+        long start = System.nanoTime();
+        List<Map.Entry<String, Integer>> best = optimizer.run(Math.max(1, chains), seed);
+        long time = System.nanoTime() - start;
+
+        //the best boards are solved once more in full so their words can be written out
+        for (Map.Entry<String, Integer> entry : best) {
+            Solution solution = new BoggleSolver(Boards.parse(entry.getKey()), null).getSolution();
+            System.out.println(entry.getValue() + "\t" + solution.size() + "\t" + entry.getKey() + "\t"
+                    + String.join(",", solution.getWords()));
+        }
+        long evaluations = optimizer.getEvaluations();
+        System.err.printf("Seed %d, %d chains, %d boards scored in %.1f s (%.0f boards/s)%n", seed, chains,
+                evaluations, time / 1e9, evaluations / (time / 1e9));
+    }
+
+    /*
+     * This method runs the chains and returns the best boards they found as board text and score, highest first
+     */
+    public List<Map.Entry<String, Integer>> run(int chains, long seed) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(chains);
+        ArrayList<Future<HashMap<String, Integer>>> results = new ArrayList<>();
+        //every chain gets its own generator split from the seed, so a run can be repeated with the same seed
+        SplittableRandom random = new SplittableRandom(seed);
+
+        try {
+            for (int n = 0; n < chains; n++) {
+                Chain chain = new Chain(random.split());
+                results.add(workers.submit(chain::anneal));
+            }
+            HashMap<String, Integer> best = new HashMap<>();
+            for (Future<HashMap<String, Integer>> result : results) {
+                best.putAll(result.get());
+            }
+            ArrayList<Map.Entry<String, Integer>> sorted = new ArrayList<>(best.entrySet());
+            sorted.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+            return sorted;
+        }
+        finally {
+            workers.shutdown();
+        }
+    }
+
+    /*
+     * Getter method for the number of boards scored so far across all chains
+     */
+    public long getEvaluations() {
+        return _evaluations.sum();
+    }
+
+    /*
+     * This is the private inner class for one annealing chain. It holds the current board and undoes a change by
+     * putting back the tiles it saved before making it.
+     */
+    private class Chain {
+
+        private final SplittableRandom _random;
+        private final char[][] _board;
+        //for dice boards, which die sits on each cell and which face of it is showing
+        private final int[] _dieAt;
+        private final int[] _faceAt;
+        private final HashMap<String, Integer> _best;
+        private int _firstCell;
+        private int _secondCell;
+        private char _firstLetter;
+        private int _firstFace;
+
+        private Chain(SplittableRandom random) {
+            _random = random;
+            _board = _useDice ? new char[_size][_size] : new BoardGenerator(_random).generate(_size);
+            _dieAt = new int[_size * _size];
+            _faceAt = new int[_size * _size];
+            _best = new HashMap<>();
+
+            if (_useDice) {
+                //the dice are shuffled onto the board and each is rolled
+                for (int cell = 0; cell < _dieAt.length; cell++) {
+                    _dieAt[cell] = cell;
+                }
+                for (int cell = _dieAt.length - 1; cell > 0; cell--) {
+                    this.swapDice(cell, _random.nextInt(cell + 1));
+                }
+                for (int cell = 0; cell < _dieAt.length; cell++) {
+                    _faceAt[cell] = _random.nextInt(BoardGenerator.DICE[_dieAt[cell]].length());
+                    this.showFace(cell);
+                }
+            }
+        }
+
+        /*
+         * This method runs the chain until the time or iteration budget is used up and returns its best boards
+         */
+        private HashMap<String, Integer> anneal() throws IOException {
+            long start = System.nanoTime();
+            int score = BoggleSolver.totalScore(_board);
+            double progress = 0;
+            long iteration = 0;
+            this.remember(score);
+
+            while (progress < 1) {
+                double temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, progress);
+                this.change();
+                int changed = BoggleSolver.totalScore(_board);
+
+                //better boards are always kept, worse ones only sometimes while the chain is still hot
+                if (changed >= score || _random.nextDouble() < Math.exp((changed - score) / temperature)) {
+                    score = changed;
+                    this.remember(score);
+                }
+                else {
+                    this.undo();
+                }
+
+                iteration++;
+                if (_timeLimit > 0) {
+                    if (iteration % CLOCK_INTERVAL == 0) {
+                        progress = (double) (System.nanoTime() - start) / _timeLimit;
+                        _evaluations.add(CLOCK_INTERVAL);
+                    }
+                }
+                else {
+                    progress = (double) iteration / _iterations;
+                    if (iteration % CLOCK_INTERVAL == 0) {
+                        _evaluations.add(CLOCK_INTERVAL);
+                    }
+                }
+            }
+            _evaluations.add(iteration % CLOCK_INTERVAL);
+            return _best;
+        }
+
+        /*
+         * This method makes one random change to the board and saves what is needed to undo it
+         */
+        private void change() {
+            int cells = _size * _size;
+            _firstCell = _random.nextInt(cells);
+            _secondCell = -1;
+
+            if (_random.nextBoolean()) {
+                //swaps two tiles (or two dice) with each other
+                _secondCell = (_firstCell + 1 + _random.nextInt(cells - 1)) % cells;
+                this.swap(_firstCell, _secondCell);
+            }
+            else if (_useDice) {
+                //turns a die to one of its other faces
+                _firstFace = _faceAt[_firstCell];
+                int faces = BoardGenerator.DICE[_dieAt[_firstCell]].length();
+                _faceAt[_firstCell] = (_faceAt[_firstCell] + 1 + _random.nextInt(faces - 1)) % faces;
+                this.showFace(_firstCell);
+            }
+            else {
+                //changes a tile to a new letter
+                _firstLetter = _board[_firstCell / _size][_firstCell % _size];
+                _board[_firstCell / _size][_firstCell % _size] =
+                        BoardGenerator.ALPHABET.charAt(_random.nextInt(BoardGenerator.ALPHABET.length()));
+            }
+        }
+
+        /*
+         * This method undoes the last change
+         */
+        private void undo() {
+            if (_secondCell >= 0) {
+                this.swap(_firstCell, _secondCell);
+            }
+            else if (_useDice) {
+                _faceAt[_firstCell] = _firstFace;
+                this.showFace(_firstCell);
+            }
+            else {
+                _board[_firstCell / _size][_firstCell % _size] = _firstLetter;
+            }
+        }
+
+        /*
+         * This method swaps the tiles on two cells, along with their dice on a dice board
+         */
+        private void swap(int first, int second) {
+            char letter = _board[first / _size][first % _size];
+            _board[first / _size][first % _size] = _board[second / _size][second % _size];
+            _board[second / _size][second % _size] = letter;
+            if (_useDice) {
+                this.swapDice(first, second);
+            }
+        }
+
+        /*
+         * This method swaps which die and face sit on two cells
+         */
+        private void swapDice(int first, int second) {
+            int die = _dieAt[first];
+            _dieAt[first] = _dieAt[second];
+            _dieAt[second] = die;
+            int face = _faceAt[first];
+            _faceAt[first] = _faceAt[second];
+            _faceAt[second] = face;
+        }
+
+        /*
+         * This method puts the letter of a cell's die face on the board
+         */
+        private void showFace(int cell) {
+            _board[cell / _size][cell % _size] = BoardGenerator.DICE[_dieAt[cell]].charAt(_faceAt[cell]);
+        }
+
+        /*
+         * This method keeps the board if it is one of the best few this chain has seen
+         */
+        private void remember(int score) {
+            if (_best.size() >= _keep) {
+                Map.Entry<String, Integer> worst = Collections.min(_best.entrySet(), Map.Entry.comparingByValue());
+                if (score <= worst.getValue()) {
+                    return;
+                }
+                String board = Boards.format(_board);
+                if (_best.containsKey(board)) {
+                    return;
+                }
+                _best.remove(worst.getKey());
+                _best.put(board, score);
+            }
+            else {
+                _best.put(Boards.format(_board), score);
+            }
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This is the BoardStatistics class. It deals a great many random boards the way the game does and solves every one
+ * of them, then prints how the number of words, the total score and the longest word are spread out for each board
+ * size and letter source: the real dice or the alphabet string. Other dice or another alphabet string can be given to
+ * see how changing the letter tables changes the boards.
+ *
+ * Boards are dealt in chunks, and every chunk gets its own generator split in order from one seeded SplittableRandom
+ * before any board is solved. A chunk always gets the same boards whichever thread solves it, so a run with the same
+ * seed and options prints the same numbers however many threads it uses. Boards are solved with
+ * BoggleSolver.countWords, which keeps no words.
+ *
+ * Usage: java boggle.BoardStatistics [--size n,n] [--source dice,alphabet] [--boards n] [--threads n] [--seed n]
+ *                                    [--dice DIE,DIE,...] [--alphabet LETTERS] [--histogram]
+ */
+public class BoardStatistics {
+
+    private static final int CHUNK_SIZE = 1024;
+    private static final double[] PERCENTILES = {5, 25, 50, 75, 95, 99};
+    //how many rows a histogram is printed with at most
+    private static final int HISTOGRAM_ROWS = 20;
+
+    private final String[] _dice;
+    private final String _alphabet;
+    private final int _threads;
+
+    /*
+     * Constructor for BoardStatistics. With null dice only the alphabet string can be used.
+     */
+    public BoardStatistics(String[] dice, String alphabet, int threads) {
+        BoardGenerator.check(dice, alphabet);
+        _dice = dice == null ? null : dice.clone();
+        _alphabet = alphabet;
+        _threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {BoardGenerator.DICE_BOARD_SIZE};
+        String[] sources = {"dice", "alphabet"};
+        long boards = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        String[] dice = BoardGenerator.DICE;
+        String alphabet = BoardGenerator.ALPHABET;
+        boolean histogram = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--size":
+                    sizes = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "--source":
+                    sources = args[++i].split(",");
+                    break;
+                case "--boards":
+                    boards = Long.parseLong(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--dice":
+                    dice = args[++i].toUpperCase().split(",");
+                    break;
+                case "--alphabet":
+                    alphabet = args[++i].toUpperCase();
+                    break;
+                case "--histogram":
+                    histogram = true;
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        Dictionary.getInstance();
+        BoardStatistics statistics = new BoardStatistics(dice, alphabet, Math.max(1, threads));
+        SplittableRandom random = new SplittableRandom(seed);
+        long solved = 0;
+        long start = System.nanoTime();
+
+        for (int size : sizes) {
+            for (String source : sources) {
+                boolean useDice;
+                if (source.equals("dice")) {
+                    if (size * size != dice.length) {
+                        System.err.println("Skipping size " + size + " with dice, there are " + dice.length
+                                + " dice");
+                        continue;
+                    }
+                    useDice = true;
+                }
+                else if (source.equals("alphabet")) {
+                    useDice = false;
+                }
+                else {
+                    System.err.println("Unknown source " + source);
+                    System.exit(1);
+                    return;
+                }
+
+                Histogram[] results = statistics.run(size, useDice, boards, random);
+                System.out.println("Size " + size + ", " + source + ", " + boards + " boards");
+                System.out.println("                mean       sd    min     p5    p25    p50    p75    p95    p99"
+                        + "    max");
+                print("Words", results[0]);
+                print("Total score", results[1]);
+                print("Longest word", results[2]);
+                if (histogram) {
+                    printHistogram("Words", results[0]);
+                    printHistogram("Total score", results[1]);
+                    printHistogram("Longest word", results[2]);
+                }
+                System.out.println();
+                solved += boards;
+            }
+        }
+        long time = System.nanoTime() - start;
+        System.err.printf("Seed %d, %d threads, %d boards solved in %.1f s (%.0f boards/s)%n", seed, threads, solved,
+                time / 1e9, solved / (time / 1e9));
+    }
+
+    /*
+     * This method deals and solves the given number of boards of one size and returns the histograms of their word
+     * counts, total scores and longest words. The generators for the chunks are split from random in order, so the
+     * same random gives the same results, and random has moved on by the same amount afterwards.
+     */
+    public Histogram[] run(int size, boolean useDice, long boards, SplittableRandom random) throws Exception {
+        if (useDice && (_dice == null || size * size != _dice.length)) {
+            throw new IllegalArgumentException("There are no dice for a board of size " + size);
+        }
+        int chunks = (int) ((boards + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        ArrayList<Future<Histogram[]>> results = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(_threads);
+
+        try {
+            for (int n = 0; n < chunks; n++) {
+                SplittableRandom chunkRandom = random.split();
+                int count = (int) Math.min(CHUNK_SIZE, boards - (long) n * CHUNK_SIZE);
+                results.add(workers.submit(() -> this.solveChunk(size, useDice, count, chunkRandom)));
+            }
+            Histogram[] total = {new Histogram(), new Histogram(), new Histogram()};
+            for (Future<Histogram[]> result : results) {
+                Histogram[] chunk = result.get();
+                for (int i = 0; i < total.length; i++) {
+                    total[i].add(chunk[i]);
+                }
+            }
+            return total;
+        }
+        finally {
+            workers.shutdown();
+        }
+    }
+
+    /*
+     * This method deals and solves the boards of one chunk
+     */
+    private Histogram[] solveChunk(int size, boolean useDice, int count, SplittableRandom random) throws Exception {
+        BoardGenerator generator = new BoardGenerator(random, useDice ? _dice : null, _alphabet);
+        BoardTopology topology = BoardTopology.of(size);
+        Histogram[] chunk = {new Histogram(), new Histogram(), new Histogram()};
+
+        for (int n = 0; n < count; n++) {
+            BoggleSolver solver = BoggleSolver.countWords(generator.generate(size), topology);
+            chunk[0].add(solver.getWordCount());
+            chunk[1].add(solver.getTotalScore());
+            chunk[2].add(solver.getLongestWordLength());
+        }
+        return chunk;
+    }
+
+    /*
+     * This method prints one row of the table: the mean, standard deviation, smallest value, percentiles and largest
+     * value of a histogram
+     */
+    private static void print(String name, Histogram histogram) {
+        StringBuilder line = new StringBuilder(String.format("%-12s %8.2f %8.2f %6d", name, histogram.getMean(),
+                histogram.getStandardDeviation(), histogram.getMin()));
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" %6d", histogram.getPercentile(percentile)));
+        }
+        line.append(String.format(" %6d", histogram.getMax()));
+        System.out.println(line);
+    }
+
+    /*
+     * This method prints a histogram as rows of equal ranges of values, with the share of boards in each
+     */
+    private static void printHistogram(String name, Histogram histogram) {
+        int width = (histogram.getMax() - histogram.getMin()) / HISTOGRAM_ROWS + 1;
+        System.out.println(name + ":");
+        for (int low = histogram.getMin(); low <= histogram.getMax(); low += width) {
+            long count = histogram.getCount(low, low + width - 1);
+            double share = 100.0 * count / histogram.getTotal();
+            System.out.printf("  %6d-%-6d %10d %6.2f%% %s%n", low, low + width - 1, count, share,
+                    "#".repeat((int) Math.round(share)));
+        }
+    }
+
+    /**
+     * This is the Histogram class. It counts how many boards had each value, so the mean and percentiles it works
+     * out are exact and histograms from different chunks can be added together in any order.
+     */
+    public static final class Histogram {
+
+        private long[] _counts = new long[64];
+        private long _total;
+
+        /*
+         * This method counts one board with the given value, which must not be negative
+         */
+        public void add(int value) {
+            if (value >= _counts.length) {
+                _counts = Arrays.copyOf(_counts, Math.max(value + 1, _counts.length * 2));
+            }
+            _counts[value]++;
+            _total++;
+        }
+
+        /*
+         * This method adds the counts of another histogram to this one
+         */
+        public void add(Histogram other) {
+            if (other._counts.length > _counts.length) {
+                _counts = Arrays.copyOf(_counts, other._counts.length);
+            }
+            for (int value = 0; value < other._counts.length; value++) {
+                _counts[value] += other._counts[value];
+            }
+            _total += other._total;
+        }
+
+        /*
+         * Getter method for the number of boards counted
+         */
+        public long getTotal() {
+            return _total;
+        }
+
+        /*
+         * This method returns the number of boards with a value from low to high
+         */
+        public long getCount(int low, int high) {
+            long count = 0;
+            for (int value = Math.max(low, 0); value <= Math.min(high, _counts.length - 1); value++) {
+                count += _counts[value];
+            }
+            return count;
+        }
+
+        /*
+         * Getter method for the smallest value counted, which is 0 if nothing has been counted
+         */
+        public int getMin() {
+            for (int value = 0; value < _counts.length; value++) {
+                if (_counts[value] > 0) {
+                    return value;
+                }
+            }
+            return 0;
+        }
+
+        /*
+         * Getter method for the largest value counted, which is 0 if nothing has been counted
+         */
+        public int getMax() {
+            for (int value = _counts.length - 1; value >= 0; value--) {
+                if (_counts[value] > 0) {
+                    return value;
+                }
+            }
+            return 0;
+        }
+
+        /*
+         * This method returns the mean of the values counted
+         */
+        public double getMean() {
+            double sum = 0;
+            for (int value = 0; value < _counts.length; value++) {
+                sum += (double) value * _counts[value];
+            }
+            return _total == 0 ? 0 : sum / _total;
+        }
+
+        /*
+         * This method returns the standard deviation of the values counted, treating them as the whole population
+         */
+        public double getStandardDeviation() {
+            double mean = this.getMean();
+            double sum = 0;
+            for (int value = 0; value < _counts.length; value++) {
+                sum += (value - mean) * (value - mean) * _counts[value];
+            }
+            return _total == 0 ? 0 : Math.sqrt(sum / _total);
+        }
+
+        /*
+         * This method returns the smallest value that at least the given percent of the boards are at or below
+         */
+        public int getPercentile(double percent) {
+            long needed = (long) Math.ceil(percent / 100 * _total);
+            long seen = 0;
+            for (int value = 0; value < _counts.length; value++) {
+                seen += _counts[value];
+                if (seen >= Math.max(needed, 1)) {
+                    return value;
+                }
+            }
+            return 0;
+        }
+    }
+}
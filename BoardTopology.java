@@ -0,0 +1,207 @@
+package boggle;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This is the BoardTopology class. It describes the shape of a board: how many rows and columns it has and which cells
+ * are next to each other. Cells are numbered row by row, so the cell at row i and column j is i * columns + j. The
+ * neighbors of every cell are worked out once when the topology is made, so neither the solver nor the game has to
+ * check the edges of the board while it runs.
+ *
+ * Besides the normal rectangular board, a topology can wrap around like a torus, where the left edge is next to the
+ * right edge and the top edge is next to the bottom edge. Topologies never change, so one is kept for every shape
+ * that has been asked for and shared by everything that uses that shape.
+ *
+ * A board of at most 64 cells also has the neighbors of each cell as a bitmask with bit n for cell n, for solvers that
+ * keep the cells of a path in a single long.
+ */
+public final class BoardTopology {
+
+    private static final ConcurrentHashMap<Long, BoardTopology> CACHE = new ConcurrentHashMap<>();
+
+    private final int _rows;
+    private final int _columns;
+    private final boolean _wrap;
+    private final int[][] _neighbors;
+    private final long[] _neighborMasks;
+
+    /*
+     * Constructor for BoardTopology. Use the of methods so that shapes are shared.
+     */
+    private BoardTopology(int rows, int columns, boolean wrap) {
+        _rows = rows;
+        _columns = columns;
+        _wrap = wrap;
+        _neighbors = new int[rows * columns][];
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                int[] neighbors = new int[8];
+                int count = 0;
+                for (int a = -1; a <= 1; a++) {
+                    for (int b = -1; b <= 1; b++) {
+                        int row = i + a;
+                        int column = j + b;
+                        if (wrap) {
+                            row = Math.floorMod(row, rows);
+                            column = Math.floorMod(column, columns);
+                        }
+                        //conditions insure we dont go out of the array bounds
+                        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+                            continue;
+                        }
+                        int neighbor = row * columns + column;
+                        //on a small wrapped board a neighbor can be reached two ways, or be the cell itself
+                        if (neighbor != i * columns + j && !contains(neighbors, count, neighbor)) {
+                            neighbors[count++] = neighbor;
+                        }
+                    }
+                }
+                _neighbors[i * columns + j] = Arrays.copyOf(neighbors, count);
+            }
+        }
+
+        if (rows * columns <= Long.SIZE) {
+            _neighborMasks = new long[rows * columns];
+            for (int cell = 0; cell < _neighborMasks.length; cell++) {
+                for (int neighbor : _neighbors[cell]) {
+                    _neighborMasks[cell] |= 1L << neighbor;
+                }
+            }
+        }
+        else {
+            _neighborMasks = null;
+        }
+    }
+
+    /*
+     * This method returns the topology for a normal square board
+     */
+    public static BoardTopology of(int size) {
+        return of(size, size, false);
+    }
+
+    /*
+     * This method returns the topology for a board of the given shape, making it the first time it is asked for
+     */
+    public static BoardTopology of(int rows, int columns, boolean wrap) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("A board needs at least one row and one column");
+        }
+        long key = ((long) rows << 32) | ((long) columns << 1) | (wrap ? 1 : 0);
+        return CACHE.computeIfAbsent(key, k -> new BoardTopology(rows, columns, wrap));
+    }
+
+    /*
+     * This method returns the topology that fits a board of letters
+     */
+    public static BoardTopology of(char[][] board, boolean wrap) {
+        for (char[] row : board) {
+            if (row.length != board[0].length) {
+                throw new IllegalArgumentException("Every row of the board must be the same length");
+            }
+        }
+        return of(board.length, board[0].length, wrap);
+    }
+
+    private static boolean contains(int[] cells, int count, int cell) {
+        for (int n = 0; n < count; n++) {
+            if (cells[n] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * This method returns the cells next to a cell. The array is shared and must not be changed.
+     */
+    int[] neighbors(int cell) {
+        return _neighbors[cell];
+    }
+
+    /*
+     * This method returns the cells next to a cell as a bitmask, for boards of at most 64 cells
+     */
+    long neighborMask(int cell) {
+        return _neighborMasks[cell];
+    }
+
+    /*
+     * This method tells whether the board is small enough for every cell to have a bit in a long
+     */
+    public boolean fitsInLong() {
+        return _neighborMasks != null;
+    }
+
+    /*
+     * This method returns a copy of the cells next to a cell
+     */
+    public int[] getNeighbors(int cell) {
+        return _neighbors[cell].clone();
+    }
+
+    /*
+     * This method checks if two cells are next to each other, including diagonally
+     */
+    public boolean isAdjacent(int first, int second) {
+        return contains(_neighbors[first], _neighbors[first].length, second);
+    }
+
+    /*
+     * This method checks if the cells at two row and column positions are next to each other
+     */
+    public boolean isAdjacent(int firstRow, int firstColumn, int secondRow, int secondColumn) {
+        return this.isAdjacent(this.cell(firstRow, firstColumn), this.cell(secondRow, secondColumn));
+    }
+
+    /*
+     * This method returns the number of the cell at a row and column
+     */
+    public int cell(int row, int column) {
+        return row * _columns + column;
+    }
+
+    /*
+     * This method returns the row a cell is in
+     */
+    public int row(int cell) {
+        return cell / _columns;
+    }
+
+    /*
+     * This method returns the column a cell is in
+     */
+    public int column(int cell) {
+        return cell % _columns;
+    }
+
+    /*
+     * Getter method for the number of cells on the board
+     */
+    public int getCellCount() {
+        return _neighbors.length;
+    }
+
+    /*
+     * Getter method for the number of rows
+     */
+    public int getRows() {
+        return _rows;
+    }
+
+    /*
+     * Getter method for the number of columns
+     */
+    public int getColumns() {
+        return _columns;
+    }
+
+    /*
+     * This method tells whether the edges of the board wrap around
+     */
+    public boolean isWrapped() {
+        return _wrap;
+    }
+}
@@ -0,0 +1,63 @@
+package boggle;
+
+/**
+ * This is the Boards class. It turns boards into text and back for the tools that work on boards outside of the game.
+ * A board is written as its rows from top to bottom separated by '/', for example "ABCD/EFGH/IJKL/MNOP". A square
+ * board may also be written as all of its letters in one run, such as "ABCDEFGHIJKLMNOP".
+ */
+public final class Boards {
+
+    private Boards() {
+    }
+
+    /*
+     * This method reads a board from text. Letters are made upper case and the rows must all be the same length.
+     */
+    public static char[][] parse(String text) {
+        String trimmed = text.trim().toUpperCase();
+        String[] rows;
+
+        if (trimmed.indexOf('/') >= 0) {
+            rows = trimmed.split("/");
+        }
+        else {
+            //without separators the board has to be square
+            int size = (int) Math.round(Math.sqrt(trimmed.length()));
+            if (size == 0 || size * size != trimmed.length()) {
+                throw new IllegalArgumentException("Board " + text + " is not square, separate the rows with '/'");
+            }
+            rows = new String[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = trimmed.substring(i * size, (i + 1) * size);
+            }
+        }
+
+        char[][] board = new char[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i].isEmpty() || rows[i].length() != rows[0].length()) {
+                throw new IllegalArgumentException("Board " + text + " has rows of different lengths");
+            }
+            board[i] = rows[i].toCharArray();
+            for (char letter : board[i]) {
+                if (letter < 'A' || letter > 'Z') {
+                    throw new IllegalArgumentException("Board " + text + " contains a character that is not A-Z");
+                }
+            }
+        }
+        return board;
+    }
+
+    /*
+     * This method writes a board as text in the form that parse reads
+     */
+    public static String format(char[][] board) {
+        StringBuilder text = new StringBuilder(board.length * (board[0].length + 1));
+        for (int i = 0; i < board.length; i++) {
+            if (i > 0) {
+                text.append('/');
+            }
+            text.append(board[i]);
+        }
+        return text.toString();
+    }
+}
@@ -3,6 +3,7 @@ package boggle;
 import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.HPos;
@@ -10,6 +11,7 @@ import javafx.geometry.Pos;
 import javafx.geometry.VPos;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
@@ -17,21 +19,46 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * This is the main game class Boggle. It handles all of the game code besides the solving algorithm. The arrays and
  * gridpane are kept and updates here along with the timehandler and all of the other eventhandlers. All game logic
- * is here.
+ * is here. Words are checked against the board one at a time as they are entered, and the whole board is only solved
+ * once the game ends.
+ *
+ * Once the dictionary is ready, a TrieCursor follows the selected tiles one letter at a time. The selected tiles are
+ * outlined red while they still start a word, green when they spell one and gray when no word starts with them. With
+ * auto check turned on, a word is checked as soon as its last tile is selected.
  */
 public class Boggle {
 
+    public static final String SEED_PROPERTY = "boggle.seed";
+
+    //the dictionary is loaded and boards are solved on this thread so the game window never waits for either
+    private static final ExecutorService SOLVER_THREAD = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "boggle-solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    //every board is drawn from one generator that is seeded once per run, from boggle.seed if it is set so a run's
+    //boards can be dealt again. Boards are only made on the JavaFX thread, so the generator is never shared.
+    private static final BoardGenerator BOARDS = new BoardGenerator(
+            new SplittableRandom(Long.getLong(SEED_PROPERTY, new SecureRandom().nextLong())));
+
     private GridPane _gridPane;
     private char[][] _charArray;
     private boolean[][] _isClicked;
-    private ArrayList<String> _userFoundWords;
+    private LinkedHashSet<String> _userFoundWords;
     private ArrayList<Rectangle> _rectangles;
     private Stack<Integer> _iStack;
     private Stack<Integer> _jStack;
@@ -44,20 +71,27 @@ public class Boggle {
     private int _time;
     private int _score;
     private String _currentWord;
-    private BoggleSolver _solver;
+    private CompletableFuture<LazySolver> _solver;
+    private TrieCursor _cursor;
+    private boolean _autoCheck;
+    private BoardTopology _topology;
     private Timeline _timeline;
+    //where the game is recorded, or null if it is not, and the number it is recorded under
+    private GameLog _log;
+    private long _game;
 
     /*
      * Constructor for the boggle game. It sets up all of the game elements including the event handlers, logical
      * representation of the board using arrays, and the graphical representation using a gridpane
      */
-    public Boggle(int size) throws IOException {
+    public Boggle(int size) {
         _score = 0;
         _size = size;
+        _topology = BoardTopology.of(_size);
         _gameOver = false;
         _charArray = new char[_size][_size];
         _isClicked = new boolean[_size][_size];
-        _userFoundWords = new ArrayList<>();
+        _userFoundWords = new LinkedHashSet<>();
         _gridPane = new GridPane();
         _iStack = new Stack<>();
         _jStack = new Stack<>();
@@ -107,6 +141,9 @@ public class Boggle {
                     //adds the location to the two Stacks so the game knows what the last selected rectangle is
                     _iStack.push(row);
                     _jStack.push(col);
+                    if (_log != null) {
+                        _log.selectTile(_game, _topology.cell(col, row));
+                    }
                     //updates the label and string with the new letter
                     this.addLetterToLabel(row, col);
 
@@ -118,6 +155,9 @@ public class Boggle {
                     //removes its location for the stack
                     _iStack.pop();
                     _jStack.pop();
+                    if (_log != null) {
+                        _log.deselectTile(_game, _topology.cell(col, row));
+                    }
                     _isClicked[row][col] = false;
                     //removes the letter from the current word
                     this.removeLetterFromLabel();
@@ -132,41 +172,11 @@ public class Boggle {
     }
 
     /*
-     * This method sets up the board. It randomly generates characters for use in the game
+     * This method sets up the board. The random letters for the game are picked by the BoardGenerator
      */
-    private void setUpBoard() throws IOException {
-        SecureRandom r = new SecureRandom();
-
-        /*
-         * These "dice" contain the actual letters that are used in a real boggle game. If the user selects to play
-         * the standard 4x4 game, the actual characters of the dice will be used.
-         */
-        ArrayList<String> dice = new ArrayList<>();
-        dice.add("AEANEG");
-        dice.add("AHSPCO");
-        dice.add("ASPFFK");
-        dice.add("OBJOAB");
-        dice.add("IOTMUC");
-        dice.add("RYVDEL");
-        dice.add("LREIXD");
-        dice.add("EIUNES");
-        dice.add("WNGEEH");
-        dice.add("LNHNRZ");
-        dice.add("TSTIYD");
-        dice.add("OWTOAT");
-        dice.add("ERTTYL");
-        dice.add("TOESSI");
-        dice.add("TERWHV");
-        dice.add("NUIHMQ");
-
-        /*
-         * If the player is not playing 4x4, the 16 dice in the original boggle game cannot be used. In substitution,
-         * this string contains a very rough approximation of the distribution of letters based on how common they are
-         * in the english language.
-         */
-        String alphabet = "AAAABBCCDDDEEEEEEFFGGHHHIIIJJKKLLLMMNNNOOOOPPQRRRSSSSTTTTTUUUVVWWXYYZ";
-
-        char letter;
+    private void setUpBoard() {
+        char[][] letters = BOARDS.generate(_size);
+
         //sets up the gridpane
         _gridPane.setStyle("-fx-background-color: black");
         _gridPane.setHgap(0);
@@ -176,17 +186,7 @@ public class Boggle {
         for(int i = 0; i < _size; i++) {
             for(int j = 0; j < _size; j++) {
                 Label label = new Label();
-
-                //uses the "dice" method for letter selection of playing 4x4
-                if (_size == 4) {
-                    int n = r.nextInt(dice.size());
-                    letter = dice.get(n).charAt(r.nextInt(dice.get(n).length()));
-                    dice.remove(n);
-                }
-                //otherwise uses alphabet string
-                else {
-                    letter = alphabet.charAt(r.nextInt(alphabet.length()));
-                }
+                char letter = letters[i][j];
 
                 //letter is added to the label
                 label.setText(String.valueOf(letter));
@@ -215,54 +215,100 @@ public class Boggle {
             }
         }
         _gridPane.requestFocus();
-        //The boggle solver is created which will solve the current board
-        _solver = new BoggleSolver(_charArray);
+        //the game is only recorded when a log directory is given with boggle.log.dir. The letters are laid out by
+        //column in _charArray, so a tile at row and col is cell col * size + row of the recorded board.
+        _log = GameLog.shared();
+        if (_log != null) {
+            _game = _log.startGame(_charArray, false);
+        }
+        //The solver is made in the background so the board shows and the timer starts right away. It only needs the
+        //dictionary to check words, and the board is not solved until the game ends.
+        _solver = CompletableFuture.supplyAsync(this::makeSolver, SOLVER_THREAD);
+        _solver.whenCompleteAsync((solver, error) -> {
+            if (error != null) {
+                _statusLabel.setText("The dictionary could not be loaded: " + error.getCause().getMessage());
+            }
+            else {
+                this.startCursor(solver);
+            }
+        }, Platform::runLater);
         //sets up and starts the timehandler
         this.setUpTimeline();
 
     }
 
     /*
-     * This method is called any time the user clicks the "Check Word" button. It asks the solver if the current word
-     * can be found in this boggle board.
-     * Scoring is also handled here.
+     * This method runs on the solver thread and makes the solver for the board, loading the dictionary if needed
+     */
+    private LazySolver makeSolver() {
+        try {
+            return new LazySolver(_charArray, SolutionCache.shared(), BoggleSolver.sharedPool());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * This method makes the cursor once the dictionary is loaded and catches it up with the tiles already selected
+     */
+    private void startCursor(LazySolver solver) {
+        _cursor = solver.getTrie().cursor(solver.getDictionaries());
+        for (int n = 0; n < _currentWord.length(); n++) {
+            _cursor.push(_currentWord.charAt(n));
+        }
+        this.showSelection();
+    }
+
+    /*
+     * This method is called any time the user clicks the "Check Word" button. If the dictionary has not loaded yet, the
+     * word is remembered and checked as soon as it has.
      */
     private void checkCurrentWord() {
+        String word = _currentWord;
+
+        if (_solver.isCompletedExceptionally()) {
+            _statusLabel.setText("Words cannot be checked because the dictionary could not be loaded");
+        }
+        else if (_solver.isDone()) {
+            this.checkWord(_solver.join(), word);
+        }
+        else {
+            _statusLabel.setText("Still loading the dictionary, " + "''" + word + "''" + " will be checked in a moment");
+            _solver.thenAcceptAsync(solver -> {
+                if (!_gameOver) {
+                    this.checkWord(solver, word);
+                }
+            }, Platform::runLater);
+        }
+    }
+
+    /*
+     * This method asks the solver if the word can be found in this boggle board. The solver only searches the board
+     * for this one word, so this is quick enough for the game window to wait on.
+     * Scoring is also handled here.
+     */
+    private void checkWord(LazySolver solver, String word) {
+        int points = 0;
         //If the word entered is good, then word will be added to a list for later and points will be awarded
-        if (_solver.validWord(_currentWord) && !_userFoundWords.contains(_currentWord)) {
-            _userFoundWords.add(_currentWord);
+        if (solver.validWord(word) && _userFoundWords.add(word)) {
             //status label is updated to let the player know they found a word
-            _statusLabel.setText("You found the word " + "''" + _currentWord + "''");
-            //switch statement awards points based on how long the word the player found is
-            switch (_currentWord.length()) {
-                case 1:
-                case 2:
-                case 3:
-                case 4:
-                    _score = _score + 1;
-                    break;
-                case 5:
-                    _score = _score + 2;
-                    break;
-                case 6:
-                    _score = _score + 3;
-                    break;
-                case 7:
-                    _score = _score + 5;
-                    break;
-                default:
-                    _score = _score + 11;
-                    break;
-            }
+            _statusLabel.setText("You found the word " + "''" + word + "''");
+            //points are awarded based on how long the word the player found is
+            points = Scoring.score(word.length());
+            _score = _score + points;
             _scoreLabel.setText("Score: " + _score);
         }
         //if the player enters a word they already found, status label tells the,
-        else if (_userFoundWords.contains(_currentWord)) {
-            _statusLabel.setText("You have already found the word " + "''" + _currentWord + "''");
+        else if (_userFoundWords.contains(word)) {
+            _statusLabel.setText("You have already found the word " + "''" + word + "''");
         }
         //if word is not a valid word
         else {
-            _statusLabel.setText("Sorry, " + "''" + _currentWord + "''" + " is not a valid word!");
+            _statusLabel.setText("Sorry, " + "''" + word + "''" + " is not a valid word!");
+        }
+        if (_log != null) {
+            _log.checkWord(_game, word, points);
         }
     }
 
@@ -311,7 +357,14 @@ public class Boggle {
             }
             e.consume();
         });
-        hbox.getChildren().addAll(clearButton, _scoreLabel);
+        CheckBox autoCheckBox = new CheckBox("Auto check"); //checks words as soon as they are selected
+        autoCheckBox.setFocusTraversable(false);
+        autoCheckBox.setOnAction(e -> {
+            _autoCheck = autoCheckBox.isSelected();
+            _gridPane.requestFocus();
+            e.consume();
+        });
+        hbox.getChildren().addAll(clearButton, autoCheckBox, _scoreLabel);
         pane.setLeft(hbox);
     }
 
@@ -321,6 +374,14 @@ public class Boggle {
     private void addLetterToLabel(int i, int j) {
         _currentWord = _currentWord + _charArray[j][i];
         _currentWordLabel.setText("Current Word: " + _currentWord);
+        //the cursor only needs to follow the one new letter
+        if (_cursor != null) {
+            _cursor.push(_charArray[j][i]);
+            this.showSelection();
+            if (_autoCheck && _cursor.isWord() && !_userFoundWords.contains(_currentWord)) {
+                this.checkCurrentWord();
+            }
+        }
     }
 
     /*
@@ -329,6 +390,33 @@ public class Boggle {
     private void removeLetterFromLabel() {
         _currentWordLabel.setText("Current Word: " + _currentWord.substring(0, _currentWord.length() - 1));
         _currentWord = _currentWord.substring(0, _currentWord.length() - 1);
+        if (_cursor != null) {
+            _cursor.pop();
+            this.showSelection();
+        }
+    }
+
+    /*
+     * This method outlines the selected tiles in a color that shows whether they start a word, spell one, or lead
+     * nowhere
+     */
+    private void showSelection() {
+        Color color;
+        switch (_cursor.getState()) {
+            case WORD:
+                color = Color.LIMEGREEN;
+                break;
+            case DEAD:
+                color = Color.GRAY;
+                break;
+            default:
+                color = Color.RED;
+                break;
+        }
+        //the rectangles were added one column at a time
+        for (int n = 0; n < _iStack.size(); n++) {
+            _rectangles.get(_jStack.get(n) * _size + _iStack.get(n)).setStroke(color);
+        }
     }
 
     /*
@@ -336,6 +424,9 @@ public class Boggle {
      */
     private void clearWord() {
         _currentWord = "";
+        if (_cursor != null) {
+            _cursor.clear();
+        }
         _currentWordLabel.setText("Current Word: ");
     }
 
@@ -348,8 +439,8 @@ public class Boggle {
         if (_iStack.empty() && _jStack.empty()) {
             return true;
         }
-        //Checks if the row and col of the clicked letter is within 1 row/column of the last selected letter
-        else if (!(_iStack.peek()-row == 0 && _jStack.peek()-col == 0) && (((_iStack.peek()-row == -1) || (_iStack.peek()-row == 0) || (_iStack.peek()-row == 1)) && ((_jStack.peek()-col == -1) || (_jStack.peek()-col == 0) || (_jStack.peek()-col == 1)))) {
+        //Checks if the clicked letter is one of the neighbors of the last selected letter
+        else if (_topology.isAdjacent(_iStack.peek(), _jStack.peek(), row, col)) {
             return true;
         }
         else {
@@ -377,6 +468,9 @@ public class Boggle {
     private void clearLetters() {
         _iStack.clear();
         _jStack.clear();
+        if (_log != null) {
+            _log.clearTiles(_game);
+        }
         this.clearWord();
         this.clearBoolArray();
         //loops through all the rectangles to reset their color to white
@@ -427,8 +521,30 @@ public class Boggle {
         _timeline.stop();
         //boolean is set to true to the key and click handlers and buttons know to not respond to inputs
         _gameOver = true;
-        //the postpane is created which displays all the found words
-        new PostPane(_userFoundWords, _solver.getWords());
+        //the board is only solved now, on the solver thread, and the postpane which displays all the found words is
+        //opened as soon as that is done. If it cannot be solved the postpane still shows the player's words.
+        _solver.thenApplyAsync(LazySolver::getWords, SOLVER_THREAD)
+                .handleAsync((words, error) -> {
+                    if (error == null) {
+                        return new PostPane(_userFoundWords, words, _solver.join().getSolveTime());
+                    }
+                    _statusLabel.setText("The board could not be solved: " + error.getCause().getMessage());
+                    return new PostPane(_userFoundWords, List.of(), "(the board could not be solved)");
+                }, Platform::runLater);
+        //the records of the game are written out now rather than waiting for the log's buffer to fill. The write is
+        //queued on the solver thread, after the solve when the dictionary is ready, so the window never waits on it.
+        if (_log != null) {
+            GameLog log = _log;
+            log.endGame(_game, _score);
+            SOLVER_THREAD.execute(() -> {
+                try {
+                    log.flush();
+                }
+                catch (IOException e) {
+                    System.err.println("Could not write game log: " + e.getMessage());
+                }
+            });
+        }
     }
 
     /*
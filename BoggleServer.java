@@ -0,0 +1,553 @@
+package boggle;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is the BoggleServer class. It runs the solver as a small HTTP service so that games and bots can share one
+ * loaded dictionary instead of each loading their own. It uses the HttpServer that comes with the JDK and nothing
+ * else. Every board the server makes or solves is kept in memory under an id, up to a limit after which the boards
+ * used least recently are dropped. Responses are JSON.
+ *
+ *   GET  /board?size=n[&torus=true]       makes a new board with BoardGenerator and solves it
+ *   GET  /board?id=id                     returns a board that was made or solved before
+ *   POST /solve[?torus=true][&words=true] solves the board in the request body (see Boards for the format)
+ *   GET  /solve?board=text[&...]          the same, with the board in the query
+ *   POST /best[?count=n][&torus=true]     returns only the n best words of the board in the body (10 by default)
+ *   GET  /best?board=text[&...]           the same, with the board in the query
+ *   GET  /check?id=id&word=word           checks a word against a stored board and returns its points and cells
+ *   GET  /check?board=text&word=a,b[&...] checks up to 1000 words against a board without solving or storing it
+ *
+ * Boards sent by a client may have at most 64 rows and 64 columns, the largest board /board makes. Larger ones are
+ * refused with 400 before anything is solved.
+ *
+ * Each request runs on its own virtual thread when the JVM has them, and otherwise on a cached pool of threads. The
+ * boards themselves are solved on a fixed pool with one platform thread per core, and the request thread waits for
+ * its result. The solver keeps its scratch arrays, about 1.6 MB sized by the trie, in a SearchState per thread, so a
+ * new virtual thread for every solve would allocate a new one each time. The pool keeps one per core for good. The
+ * cost is that a busy server queues solves rather than starting more at once, which it could not run any faster.
+ *
+ * Usage: java boggle.BoggleServer [--host name] [--port n] [--max-boards n]
+ */
+public class BoggleServer {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_MAX_BOARDS = 100_000;
+    //largest board the server will make or take from a client, and largest request body /solve will read
+    private static final int MAX_SIZE = 64;
+    private static final int MAX_BODY = 1 << 20;
+    private static final int DEFAULT_BEST = 10;
+    private static final int MAX_BEST = 1000;
+
+    private final HttpServer _server;
+    private final ExecutorService _executor;
+    private final ExecutorService _solvers;
+    private final Map<String, StoredBoard> _boards;
+    private final AtomicLong _nextId;
+
+    /*
+     * Constructor for BoggleServer. The server does not take requests until start is called.
+     */
+    public BoggleServer(InetSocketAddress address, int maxBoards) throws IOException {
+        _server = HttpServer.create(address, 0);
+        _executor = newRequestExecutor();
+        _solvers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "boggle-server-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        //an access ordered map drops the board that has gone longest without being used once the limit is reached
+        _boards = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredBoard> eldest) {
+                return this.size() > maxBoards;
+            }
+        });
+        _nextId = new AtomicLong(ThreadLocalRandom.current().nextInt(1 << 20));
+
+        _server.setExecutor(_executor);
+        _server.createContext("/board", exchange -> this.respond(exchange, this::board));
+        _server.createContext("/solve", exchange -> this.respond(exchange, this::solve));
+        _server.createContext("/check", exchange -> this.respond(exchange, this::check));
+        _server.createContext("/best", exchange -> this.respond(exchange, this::best));
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = "127.0.0.1";
+        int port = DEFAULT_PORT;
+        int maxBoards = DEFAULT_MAX_BOARDS;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host":
+                    host = args[++i];
+                    break;
+                case "--port":
+                    port = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-boards":
+                    maxBoards = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        //responses are small, so without this the headers and body wait on each other's acknowledgements. It is set
+        //here rather than in the constructor because it changes every HttpServer in the JVM.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        //the dictionary is loaded before the first request so no request has to wait for it
+        Dictionary dictionary = Dictionary.getInstance();
+        BoggleServer server = new BoggleServer(new InetSocketAddress(host, port), Math.max(1, maxBoards));
+        server.start();
+        System.err.printf("Boggle server on http://%s:%d (%d words, %s)%n", host, server.getPort(),
+                dictionary.getWordCount(), dictionary.isFromImage() ? "image" : "text");
+    }
+
+    /*
+     * This method makes the executor requests run on. Virtual threads are looked up by reflection so the server still
+     * builds and runs on JDKs that do not have them.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "boggle-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /*
+     * This method starts taking requests
+     */
+    public void start() {
+        _server.start();
+    }
+
+    /*
+     * This method stops taking requests, waiting up to the given number of seconds for ones already running
+     */
+    public void stop(int delay) {
+        _server.stop(delay);
+        _executor.shutdown();
+        _solvers.shutdown();
+    }
+
+    /*
+     * Getter method for the port the server is listening on, which is useful when it was started on port 0
+     */
+    public int getPort() {
+        return _server.getAddress().getPort();
+    }
+
+    /*
+     * This method handles GET /board, which makes a new board or returns one that is already stored
+     */
+    private String board(HttpExchange exchange, Map<String, String> query) throws IOException {
+        requireMethod(exchange, "GET");
+        String id = query.get("id");
+        if (id != null) {
+            return this.lookup(id).toJson(id, false);
+        }
+
+        int size = Integer.parseInt(query.getOrDefault("size", String.valueOf(BoardGenerator.DICE_BOARD_SIZE)));
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Size must be from 1 to " + MAX_SIZE);
+        }
+        char[][] board = new BoardGenerator(ThreadLocalRandom.current()).generate(size);
+        return this.store(board, Boolean.parseBoolean(query.get("torus")), false);
+    }
+
+    /*
+     * This method handles /solve, which solves a board sent by the client
+     */
+    private String solve(HttpExchange exchange, Map<String, String> query) throws IOException {
+        return this.store(parseBoard(boardText(exchange, query)), Boolean.parseBoolean(query.get("torus")),
+                Boolean.parseBoolean(query.get("words")));
+    }
+
+    /*
+     * This method handles /best, which returns the best words of a board sent by the client with their points and
+     * cells. Only the best words are searched for and the board is not stored, which makes it the cheap way to get a
+     * hint or the top of a leaderboard.
+     */
+    private String best(HttpExchange exchange, Map<String, String> query) throws IOException {
+        char[][] board = parseBoard(boardText(exchange, query));
+        boolean wrap = Boolean.parseBoolean(query.get("torus"));
+        int count = Integer.parseInt(query.getOrDefault("count", String.valueOf(DEFAULT_BEST)));
+        if (count < 1 || count > MAX_BEST) {
+            throw new IllegalArgumentException("Count must be from 1 to " + MAX_BEST);
+        }
+        Solution best = this.solveOnPool(() -> BoggleSolver.bestWords(board, BoardTopology.of(board, wrap),
+                Dictionary.DEFAULT_MASK, count));
+
+        StringBuilder json = new StringBuilder(64 + best.size() * 48);
+        json.append("{\"board\":").append(quote(Boards.format(board)));
+        json.append(",\"torus\":").append(wrap);
+        json.append(",\"words\":[");
+        for (int n = 0; n < best.size(); n++) {
+            if (n > 0) {
+                json.append(',');
+            }
+            json.append("{\"word\":").append(quote(best.getWords().get(n)));
+            json.append(",\"score\":").append(best.getScore(n));
+            json.append(",\"path\":");
+            appendArray(json, best.getPath(n));
+            json.append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /*
+     * This method handles GET /check, which checks a word against a stored board, or checks several words against a
+     * board given in the query
+     */
+    private String check(HttpExchange exchange, Map<String, String> query) throws IOException {
+        requireMethod(exchange, "GET");
+        if (query.containsKey("board")) {
+            return checkBoard(query);
+        }
+        String id = query.get("id");
+        String word = query.get("word");
+        if (id == null || word == null) {
+            throw new IllegalArgumentException("Missing id or word");
+        }
+        Solution solution = this.lookup(id)._solution;
+        word = word.trim().toUpperCase();
+
+        StringBuilder json = new StringBuilder(64);
+        json.append("{\"id\":").append(quote(id)).append(",\"word\":").append(quote(word));
+        int n = solution.indexOf(word);
+        json.append(",\"valid\":").append(n >= 0);
+        json.append(",\"score\":").append(n >= 0 ? solution.getScore(n) : 0);
+        if (n >= 0) {
+            json.append(",\"path\":");
+            appendArray(json, solution.getPath(n));
+        }
+        return json.append('}').toString();
+    }
+
+    /*
+     * This method checks a comma separated list of words against a board from the query. The board is never solved:
+     * the words are searched for on it together, which takes microseconds where solving it would take milliseconds.
+     */
+    private static String checkBoard(Map<String, String> query) throws IOException {
+        char[][] board = parseBoard(query.get("board"));
+        boolean wrap = Boolean.parseBoolean(query.get("torus"));
+        String text = query.get("word");
+        if (text == null) {
+            throw new IllegalArgumentException("Missing word");
+        }
+        ArrayList<String> words = new ArrayList<>();
+        for (String word : text.split(",")) {
+            words.add(word.trim().toUpperCase());
+        }
+        if (words.size() > MAX_BEST) {
+            throw new IllegalArgumentException("At most " + MAX_BEST + " words can be checked at once");
+        }
+        Solution found = new LazySolver(board, BoardTopology.of(board, wrap), null, Dictionary.DEFAULT_MASK)
+                .findWords(words);
+
+        StringBuilder json = new StringBuilder(64 + words.size() * 48);
+        json.append("{\"board\":").append(quote(Boards.format(board)));
+        json.append(",\"torus\":").append(wrap);
+        json.append(",\"words\":[");
+        for (int m = 0; m < words.size(); m++) {
+            if (m > 0) {
+                json.append(',');
+            }
+            int n = found.indexOf(words.get(m));
+            json.append("{\"word\":").append(quote(words.get(m)));
+            json.append(",\"valid\":").append(n >= 0);
+            json.append(",\"score\":").append(n >= 0 ? found.getScore(n) : 0);
+            if (n >= 0) {
+                json.append(",\"path\":");
+                appendArray(json, found.getPath(n));
+            }
+            json.append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /*
+     * This method solves a board, keeps it under a new id, and returns its description
+     */
+    private String store(char[][] board, boolean wrap, boolean includeWords) throws IOException {
+        Solution solution = this.solveOnPool(() -> new BoggleSolver(board, BoardTopology.of(board, wrap), null)
+                .getSolution());
+        StoredBoard stored = new StoredBoard(Boards.format(board), wrap, solution);
+        String id = Long.toString(_nextId.getAndIncrement(), 36);
+        _boards.put(id, stored);
+        return stored.toJson(id, includeWords);
+    }
+
+    /*
+     * This method runs a solve on the solver pool and waits for its result, passing on whatever it throws
+     */
+    private <T> T solveOnPool(Callable<T> solve) throws IOException {
+        Future<T> result = _solvers.submit(solve);
+        try {
+            return result.get();
+        }
+        catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while solving", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /*
+     * This method returns a stored board
+     */
+    private StoredBoard lookup(String id) {
+        StoredBoard stored = _boards.get(id);
+        if (stored == null) {
+            throw new RequestException(404, "No board with id " + id);
+        }
+        return stored;
+    }
+
+    /*
+     * This method runs a handler and sends back what it returns, turning failures into error responses. The
+     * exchange is always closed at the end.
+     */
+    private void respond(HttpExchange exchange, Handler handler) {
+        int status = 200;
+        String body;
+        try {
+            //a context takes every path that starts with its own, so /boardzzz would otherwise reach /board
+            if (!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath())) {
+                throw new RequestException(404, "No such path " + exchange.getRequestURI().getPath());
+            }
+            body = handler.handle(exchange, parseQuery(exchange.getRequestURI().getRawQuery()));
+        }
+        catch (RequestException e) {
+            status = e._status;
+            body = error(e.getMessage());
+        }
+        catch (IllegalArgumentException e) {
+            //this also covers numbers that do not parse
+            status = 400;
+            body = error(e.getMessage());
+        }
+        catch (Exception e) {
+            status = 500;
+            body = error(e.toString());
+        }
+
+        try (exchange) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        }
+        catch (IOException e) {
+            //the client went away, there is no one left to tell
+        }
+    }
+
+    /*
+     * This method returns the board text of a request, from the body of a POST or the board parameter of a GET
+     */
+    private static String boardText(HttpExchange exchange, Map<String, String> query) throws IOException {
+        if (exchange.getRequestMethod().equals("POST")) {
+            return readBody(exchange);
+        }
+        requireMethod(exchange, "GET");
+        String text = query.get("board");
+        if (text == null) {
+            throw new IllegalArgumentException("Missing board");
+        }
+        return text;
+    }
+
+    /*
+     * This method reads a board sent by the client, refusing one larger than the server would make itself. This is
+     * checked before the board is solved, and before its topology is made, since every shape asked for stays cached.
+     */
+    private static char[][] parseBoard(String text) {
+        char[][] board = Boards.parse(text);
+        if (board.length > MAX_SIZE || board[0].length > MAX_SIZE) {
+            throw new IllegalArgumentException("Boards can have at most " + MAX_SIZE + " rows and " + MAX_SIZE
+                    + " columns");
+        }
+        return board;
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            throw new RequestException(405, "Use " + method);
+        }
+    }
+
+    /*
+     * This method reads the request body as text, refusing bodies that are too large to be a board
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+                if (bytes.size() > MAX_BODY) {
+                    throw new RequestException(413, "Request body is too large");
+                }
+            }
+            return bytes.toString(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /*
+     * This method splits a query string into its decoded names and values
+     */
+    private static Map<String, String> parseQuery(String query) {
+        HashMap<String, String> values = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return values;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            values.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(String.valueOf(message)) + "}";
+    }
+
+    /*
+     * This method writes text as a JSON string, escaping the characters JSON does not allow as they are
+     */
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            }
+            else if (c < ' ') {
+                quoted.append(String.format("\\u%04x", (int) c));
+            }
+            else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static void appendArray(StringBuilder json, int[] values) {
+        json.append('[');
+        for (int n = 0; n < values.length; n++) {
+            if (n > 0) {
+                json.append(',');
+            }
+            json.append(values[n]);
+        }
+        json.append(']');
+    }
+
+    /*
+     * This is the interface for the code behind one path. It returns the JSON body of a successful response.
+     */
+    private interface Handler {
+        String handle(HttpExchange exchange, Map<String, String> query) throws IOException;
+    }
+
+    /*
+     * This is the private inner class for a failed request that should be answered with a particular status
+     */
+    private static class RequestException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int _status;
+
+        private RequestException(int status, String message) {
+            super(message);
+            _status = status;
+        }
+    }
+
+    /*
+     * This is the private inner class for one board kept by the server and its solution
+     */
+    private static class StoredBoard {
+
+        private final String _board;
+        private final boolean _wrap;
+        private final Solution _solution;
+
+        private StoredBoard(String board, boolean wrap, Solution solution) {
+            _board = board;
+            _wrap = wrap;
+            _solution = solution;
+        }
+
+        /*
+         * This method describes the board as JSON, with all of its words if asked for
+         */
+        private String toJson(String id, boolean includeWords) {
+            StringBuilder json = new StringBuilder(128);
+            json.append("{\"id\":").append(quote(id));
+            json.append(",\"board\":").append(quote(_board));
+            json.append(",\"torus\":").append(_wrap);
+            json.append(",\"wordCount\":").append(_solution.size());
+            json.append(",\"totalScore\":").append(_solution.getTotalScore());
+            if (includeWords) {
+                json.append(",\"words\":[");
+                List<String> words = _solution.getWords();
+                for (int n = 0; n < words.size(); n++) {
+                    if (n > 0) {
+                        json.append(',');
+                    }
+                    json.append(quote(words.get(n)));
+                }
+                json.append(']');
+            }
+            return json.append('}').toString();
+        }
+    }
+}
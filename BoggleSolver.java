@@ -1,61 +1,261 @@
 package boggle;
 
-import java.io.*;
-import java.net.URL;
-import java.util.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * This is the BoggleSolver class. It contains the algorithm that is able to take in the array of characters and solve
  * for all possible words that can be formed by the boggle rules. It uses a trie data structure to efficiently check
- * if certain combinations of letters can form a word according to a supplied dictionary
+ * if certain combinations of letters can form a word according to a supplied dictionary. The trie itself is owned by
+ * the Dictionary class and is shared between all solvers. The shape of the board and which cells are next to each
+ * other come from a BoardTopology, so boards can be rectangular or wrap around at the edges.
+ *
+ * Boards with at least boggle.solver.parallelThreshold cells (36 by default) are searched in parallel on a fork/join
+ * pool with boggle.solver.threads workers. Each starting cell can be searched on its own, so every worker keeps its
+ * own visited cells and found words, and the results are joined back together in cell order. This gives exactly the
+ * same words, in the same order and with the same paths, as searching the cells one after another.
+ *
+ * When the Dictionary holds several word lists, a solver can be given a mask of the lists to use. Only words in those
+ * lists are found, and branches of the trie that lead only to words from other lists are never walked. One search
+ * with several lists in the mask finds the words of all of them at once, and getSolution can then split them by list.
+ *
+ * Boards of at most 64 cells are searched with a BitBoard unless boggle.solver.bitBoard is set to false. The cells of
+ * the current path are then a single long, and from each cell the search only looks at letters that are both next to
+ * the cell and children of the trie node, finding the cells that hold each of them with one AND. The same words are
+ * found either way, but in a different order, so a word that can be traced more than once may come back with a
+ * different path.
+ *
+ * Before searching, the solver notes which letters the board does not have at all. Every trie node knows the letters
+ * that all of the words below it still need, so a branch that needs a missing letter is dropped as soon as it is
+ * reached. On small boards, which only have a few of the 26 letters, this cuts off most of the trie.
+ *
+ * Callers that only need a few words, such as a hint or a leaderboard, can ask bestWords for the best n words. Once n
+ * words have been found, any branch of the trie whose longest word is still shorter than the worst of them is skipped.
+ * streamWords hands each word to a WordSink as it is found and lets the sink stop the search early.
+ *
+ * Every solve is counted in SolverMetrics and recorded as a SolveEvent for Java Flight Recorder, including how many
+ * trie nodes the search visited and how many branches it pruned.
  */
 public class BoggleSolver {
 
-    private int _size;
+    public static final String THREADS_PROPERTY = "boggle.solver.threads";
+    public static final String THRESHOLD_PROPERTY = "boggle.solver.parallelThreshold";
+    public static final String BIT_BOARD_PROPERTY = "boggle.solver.bitBoard";
+    private static final int PARALLEL_THRESHOLD = Integer.getInteger(THRESHOLD_PROPERTY, 36);
+    private static final boolean USE_BIT_BOARD = Boolean.parseBoolean(System.getProperty(BIT_BOARD_PROPERTY, "true"));
+    private static ForkJoinPool _sharedPool;
+
+    private BoardTopology _topology;
     private ArrayList<String> _wordsFound;
-    private boolean[][] _isVisited;
+    private ArrayList<int[]> _pathsFound;
+    private Solution _solution;
+    private int _totalScore;
+    private int _wordCount;
+    private int _longestWord;
+    private long _solveTime;
+    private long _nodesVisited;
+    private long _nodesPruned;
     private char[][] _boggle;
+    private CompactTrie _trie;
+    private ForkJoinPool _pool;
+    //the word lists words are taken from, and whether the trie has other lists whose branches must be skipped
+    private int _dictionaries;
+    private boolean _skipOtherLists;
+
+    //the board flattened into cells numbered row by row, with the letter of each cell as 0 to 25
+    private int[] _letters;
+    //bit n is set if letter n is nowhere on the board
+    private int _missingLetters;
+    //the board as bitmasks when it has at most 64 cells, otherwise null
+    private BitBoard _bits;
 
     /*
-     * The constructor for BoggleSolver. It sets up the solver by setting up the trie structure, taking in the array
-     * of characters. It also reads the dictionary file using the URL and adds each string of dictionary words to
-     * the trie data structure.
+     * The constructor for BoggleSolver. It takes in the array of characters and searches it using the trie from the
+     * shared Dictionary. The dictionary is only loaded the first time any solver is created, after that every solver
+     * uses the same trie.
      */
     public BoggleSolver(char[][] boggle) throws IOException {
+        this(boggle, sharedPool());
+    }
+
+    /*
+     * This constructor lets the caller choose the fork/join pool that large boards are searched on. Passing null
+     * searches every board on the calling thread.
+     */
+    public BoggleSolver(char[][] boggle, ForkJoinPool pool) throws IOException {
+        this(boggle, BoardTopology.of(boggle, false), pool, Dictionary.DEFAULT_MASK, true);
+    }
 
+    /*
+     * This constructor solves a board with the given topology, for example one that wraps around at the edges. The
+     * topology must have the same number of rows and columns as the board.
+     */
+    public BoggleSolver(char[][] boggle, BoardTopology topology, ForkJoinPool pool) throws IOException {
+        this(boggle, topology, pool, Dictionary.DEFAULT_MASK, true);
+    }
+
+    /*
+     * This constructor only finds words from the word lists in the mask, where bit n stands for the nth list of the
+     * Dictionary
+     */
+    public BoggleSolver(char[][] boggle, BoardTopology topology, ForkJoinPool pool, int dictionaries)
+            throws IOException {
+        this(boggle, topology, pool, dictionaries, true);
+    }
+
+    /*
+     * This constructor takes the words from a cache when the board, or a rotation or mirror image of it, has been
+     * solved before, and otherwise solves the board on the pool and adds it to the cache
+     */
+    public BoggleSolver(char[][] boggle, SolutionCache cache, ForkJoinPool pool) throws IOException {
+        long start = System.nanoTime();
         _boggle = boggle;
-        //size of board is determined by checking length of one side of the 2d array
-        _size = _boggle.length;
-        _isVisited = new boolean[_size][_size];
-        _wordsFound = new ArrayList<>();
-        ArrayList<String> dictionary = new ArrayList<>();
+        _topology = BoardTopology.of(boggle, false);
+        _trie = Dictionary.getInstance().getTrie();
+        _pool = pool;
+        _dictionaries = Dictionary.DEFAULT_MASK;
+        _solution = cache.solve(boggle, false, pool);
+        _wordsFound = new ArrayList<>(_solution.getWords());
+        _totalScore = _solution.getTotalScore();
+        this.countWords();
+        _solveTime = System.nanoTime() - start;
+    }
 
-        /*
-         * This is where the dictionary file is imported. Originally, the dictionary was a text file in the same
-         * directory as the other java files, but there wer problems with getting the relative path of the file
-         * to be read correctly. To fix this and insure that the file is able to be read by any windows/mac/linux user
-         * with no issues, the file was uploaded to github and is accessed from there.
-         */
-        URL url = new URL("https://raw.githubusercontent.com/ilyabodo/boggle/master/dictionary.txt");
-        BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()));
-        String line;
+    /*
+     * This constructor can skip keeping the words that are found, in which case only the total score is worked out
+     */
+    private BoggleSolver(char[][] boggle, BoardTopology topology, ForkJoinPool pool, int dictionaries,
+                         boolean keepWords) throws IOException {
+        this(boggle, topology, dictionaries);
+        _pool = pool;
 
-        //an arraylist of all words in the dictionary is created by reading each line of the txt file
-        while ((line = reader.readLine()) != null) {
-            dictionary.add(line);
+        long start = System.nanoTime();
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        //calls method that searches the boggle grid for all words using the words input into the trie as reference
+        if (keepWords) {
+            this.findWords();
+            _solution = new Solution(_wordsFound, _pathsFound, topology.getColumns());
+            _totalScore = _solution.getTotalScore();
+            this.countWords();
+        }
+        else {
+            SearchState state = this.searchCells(0, _letters.length, false);
+            _totalScore = state._score;
+            _wordCount = state._wordCount;
+            _longestWord = state._longestWord;
+            _nodesVisited = state._nodesVisited;
+            _nodesPruned = state._nodesPruned;
         }
-        reader.close();
+        _solveTime = System.nanoTime() - start;
+        this.record(event, _wordCount, keepWords && this.isParallel());
+    }
 
-        //the initial trienode is created
-        TrieNode root = new TrieNode();
+    /*
+     * This constructor only sets up the board and the word lists, leaving the search to the caller
+     */
+    private BoggleSolver(char[][] boggle, BoardTopology topology, int dictionaries) throws IOException {
+        Dictionary dictionary = Dictionary.getInstance();
+        if (dictionaries == 0 || (dictionaries & ~dictionary.getAllMask()) != 0) {
+            throw new IllegalArgumentException("Word list mask " + dictionaries + " does not match the lists "
+                    + dictionary.getNames());
+        }
+        _boggle = boggle;
+        _topology = topology;
+        _trie = dictionary.getTrie();
+        _dictionaries = dictionaries;
+        _skipOtherLists = dictionaries != dictionary.getAllMask();
+        _letters = new int[topology.getCellCount()];
+        this.setUpCells();
+    }
 
-        //each string is added to the trienode network
-        for (String string : dictionary) {
-            add(root, string);
+    /*
+     * This method ends the event of a finished solve and counts the solve in the metrics
+     */
+    private void record(SolveEvent event, int wordCount, boolean parallel) {
+        event.end();
+        SolverMetrics.getInstance().recordSolve(_topology, _solveTime, _nodesVisited, _nodesPruned, wordCount);
+        if (event.shouldCommit()) {
+            event.rows = _topology.getRows();
+            event.columns = _topology.getColumns();
+            event.wrapped = _topology.isWrapped();
+            event.parallel = parallel;
+            event.wordCount = wordCount;
+            event.totalScore = _totalScore;
+            event.nodesVisited = _nodesVisited;
+            event.nodesPruned = _nodesPruned;
+            event.commit();
         }
+    }
 
-        //calls method that searches the boggle grid for all words using the words input into the trie as reference
-        this.findWords(root);
+    /*
+     * This method returns the points a player would get for finding every word on the board. No words or paths are
+     * kept while searching, which makes it much cheaper than a full solve for callers that score a great many boards,
+     * such as the BoardOptimizer.
+     */
+    public static int totalScore(char[][] boggle) throws IOException {
+        return totalScore(boggle, BoardTopology.of(boggle, false));
+    }
+
+    /*
+     * This method returns the total score of a board with the given topology
+     */
+    public static int totalScore(char[][] boggle, BoardTopology topology) throws IOException {
+        return new BoggleSolver(boggle, topology, null, Dictionary.DEFAULT_MASK, false)._totalScore;
+    }
+
+    /*
+     * This method searches a board on the calling thread without keeping any words, for callers that only need the
+     * totals of a great many boards, such as BoardStatistics. getTotalScore, getWordCount and getLongestWordLength
+     * work on the solver it returns, but it has no words or solution.
+     */
+    static BoggleSolver countWords(char[][] boggle, BoardTopology topology) throws IOException {
+        return new BoggleSolver(boggle, topology, null, Dictionary.DEFAULT_MASK, false);
+    }
+
+    /*
+     * This method returns the count words on the board worth the most points, best first. Words worth the same are
+     * ordered longest first and then alphabetically, so the result does not depend on where on the board they were
+     * found.
+     */
+    public static Solution bestWords(char[][] boggle, int count) throws IOException {
+        return bestWords(boggle, BoardTopology.of(boggle, false), Dictionary.DEFAULT_MASK, count);
+    }
+
+    /*
+     * This method returns the best words of a board with the given topology, taking words only from the word lists
+     * in the mask. The board is searched on the calling thread.
+     */
+    public static Solution bestWords(char[][] boggle, BoardTopology topology, int dictionaries, int count)
+            throws IOException {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one word must be asked for");
+        }
+        BestWords best = new BestWords(count);
+        new BoggleSolver(boggle, topology, dictionaries).searchBounded(best, null);
+        return best.toSolution(topology.getColumns());
+    }
+
+    /*
+     * This method returns the longest word on the board, the first alphabetically if there are several, or null if
+     * the board has no words
+     */
+    public static String longestWord(char[][] boggle) throws IOException {
+        Solution best = bestWords(boggle, 1);
+        return best.size() == 0 ? null : best.getWords().get(0);
+    }
+
+    /*
+     * This method hands each word on the board to the sink as it is found, in the same order a full solve finds them,
+     * without keeping any of them. It returns false if the sink stopped the search before every word was found.
+     */
+    public static boolean streamWords(char[][] boggle, BoardTopology topology, int dictionaries, WordSink sink)
+            throws IOException {
+        return new BoggleSolver(boggle, topology, dictionaries).searchBounded(null, sink);
     }
 
     /*
@@ -63,13 +263,7 @@ public class BoggleSolver {
      * word located within this boggle game grid
      */
     public boolean validWord(String word) {
-        if (_wordsFound.contains(word)) {
-            return true;
-        }
-
-        else {
-            return false;
-        }
+        return _solution.contains(word);
     }
 
     /*
@@ -80,75 +274,441 @@ public class BoggleSolver {
     }
 
     /*
-     * This method is used to add each word from the dictionary to the trie
+     * This method returns the solution for the board, which also has the path and score of every word
+     */
+    public Solution getSolution() {
+        return _solution;
+    }
+
+    /*
+     * This method returns the words of one word list out of those the board was solved with, where list is the
+     * position of the list in the Dictionary. A new Solution is made on every call.
+     */
+    public Solution getSolution(int list) {
+        if (list < 0 || list >= CompactTrie.MAX_DICTIONARIES || (_dictionaries & (1 << list)) == 0) {
+            throw new IllegalArgumentException("The board was not solved with word list " + list);
+        }
+        ArrayList<String> words = new ArrayList<>();
+        ArrayList<int[]> paths = new ArrayList<>();
+        for (int n = 0; n < _solution.size(); n++) {
+            String word = _solution.getWords().get(n);
+            if ((_trie.dictionaries(_trie.find(word)) & (1 << list)) != 0) {
+                words.add(word);
+                paths.add(_solution.getPath(n));
+            }
+        }
+        return new Solution(words, paths, _topology.getColumns());
+    }
+
+    /*
+     * This method works out the word count and the longest word from the words that were kept
+     */
+    private void countWords() {
+        _wordCount = _wordsFound.size();
+        for (String word : _wordsFound) {
+            _longestWord = Math.max(_longestWord, word.length());
+        }
+    }
+
+    /*
+     * Getter method for the points a player would get for finding every word on the board
+     */
+    public int getTotalScore() {
+        return _totalScore;
+    }
+
+    /*
+     * Getter method for the number of words on the board
+     */
+    public int getWordCount() {
+        return _wordCount;
+    }
+
+    /*
+     * Getter method for the number of letters in the longest word on the board, which is 0 if it has no words
+     */
+    public int getLongestWordLength() {
+        return _longestWord;
+    }
+
+    /*
+     * Getter method for the mask of word lists the board was solved with
+     */
+    public int getDictionaries() {
+        return _dictionaries;
+    }
+
+    /*
+     * Getter method for the dictionary trie the board was solved with
+     */
+    public CompactTrie getTrie() {
+        return _trie;
+    }
+
+    /*
+     * This method returns how long solving the board took in nanoseconds, not counting loading the dictionary
      */
-    public void add(TrieNode trie, String s) {
+    public long getSolveTime() {
+        return _solveTime;
+    }
 
-        for (int i = 0; i < s.length(); i++) {
-            //the character is converted into an int. 'A' is subtracted due to the default int values with characters
-            int j = s.charAt(i) - 'A';
+    /*
+     * Getter method for the number of trie nodes the search stepped into
+     */
+    public long getNodesVisited() {
+        return _nodesVisited;
+    }
 
-            if (trie.getChild(j) == null) {
-                trie.setChild(j, new TrieNode());
+    /*
+     * Getter method for the number of neighbors the search did not follow because no word continues through them
+     */
+    public long getNodesPruned() {
+        return _nodesPruned;
+    }
+
+    /*
+     * This method flattens the board into cell numbers, turning each letter into an index into the trie, and notes
+     * which letters the board does not have
+     */
+    private void setUpCells() {
+        int present = 0;
+        if (_boggle.length != _topology.getRows()) {
+            throw new IllegalArgumentException("Board does not have the rows of its topology");
+        }
+        for (int i = 0; i < _boggle.length; i++) {
+            if (_boggle[i].length != _topology.getColumns()) {
+                throw new IllegalArgumentException("Board does not have the columns of its topology");
             }
-            trie = trie.getChild(j);
+            for (int j = 0; j < _boggle[i].length; j++) {
+                //'A' is subtracted so each letter can be used directly as an index into the trie
+                int letter = _boggle[i][j] - 'A';
+                if (letter < 0 || letter >= Constants.ALPHABET_SIZE) {
+                    throw new IllegalArgumentException("Board contains a character that is not A-Z: " + _boggle[i][j]);
+                }
+                _letters[_topology.cell(i, j)] = letter;
+                present |= 1 << letter;
+            }
+        }
+        _missingLetters = CompactTrie.LETTER_BITS & ~present;
+        if (searchesBits(_topology)) {
+            _bits = new BitBoard(_topology, _letters);
         }
-        //once each letter is added, the isLeaf boolean is set to true to indicate a full complete word.
-        trie.setLeaf(true);
     }
 
     /*
-     * This method is the top method of the actual solving algorithm and is able to solve the boggle board
+     * This method tells whether boards with the topology are searched as a BitBoard, which tries the neighbors of a
+     * cell in the order of their numbers rather than the order the topology lists them in
+     */
+    static boolean searchesBits(BoardTopology topology) {
+        return USE_BIT_BOARD && topology.fitsInLong();
+    }
+
+    /*
+     * This method returns the pool that solvers use when none is given, creating it the first time
      */
-    private void findWords(TrieNode root) {
+    static synchronized ForkJoinPool sharedPool() {
+        if (_sharedPool == null) {
+            int threads = Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+            _sharedPool = new ForkJoinPool(Math.max(1, threads));
+        }
+        return _sharedPool;
+    }
 
-        StringBuilder str = new StringBuilder();
+    /*
+     * This method is the top method of the actual solving algorithm and is able to solve the boggle board
+     */
+    private void findWords() {
+        if (!this.isParallel()) {
+            SearchState state = this.searchCells(0, _letters.length, true);
+            _wordsFound = state._wordsFound;
+            _pathsFound = state._pathsFound;
+            _nodesVisited = state._nodesVisited;
+            _nodesPruned = state._nodesPruned;
+            return;
+        }
 
-        // loops through all elements in the 2d character array
-        for (int i = 0 ; i < _size; i++) {
-            for (int j = 0 ; j < _size; j++) {
-                str.append(_boggle[i][j]);
-                this.search( i, j, root.getChild(_boggle[i][j] - 'A'), str.toString());
-                str = new StringBuilder();
+        //every range of cells was searched on its own, so a word can show up in more than one of them. Going through
+        //the ranges in cell order and keeping the first copy gives the same result as the sequential search.
+        CellRange all = _pool.invoke(new CellRange(0, _letters.length, this.splitSize()));
+        _nodesVisited = all._nodesVisited;
+        _nodesPruned = all._nodesPruned;
+        HashSet<String> seen = new HashSet<>(all._words.size() * 2);
+        _wordsFound = new ArrayList<>(all._words.size());
+        _pathsFound = new ArrayList<>(all._words.size());
+        for (int n = 0; n < all._words.size(); n++) {
+            if (seen.add(all._words.get(n))) {
+                _wordsFound.add(all._words.get(n));
+                _pathsFound.add(all._paths.get(n));
             }
         }
     }
 
     /*
-     * This method finds all of the words within the boggle board.
+     * This method tells whether the board is big enough, and the pool has enough workers, to be searched in parallel
      */
-    private void search(int i, int j, TrieNode root, String string) {
-        // if word is found in trie, and not already found: adds to list of found words
-        if (root.getLeaf() && !_wordsFound.contains(string)) {
-            _wordsFound.add(string);
+    private boolean isParallel() {
+        return _pool != null && _letters.length >= PARALLEL_THRESHOLD && _pool.getParallelism() >= 2;
+    }
+
+    /*
+     * This method searches every starting cell from first up to (not including) last on the current thread, and
+     * returns the state holding what was found. Without keepWords only the score is added up.
+     */
+    private SearchState searchCells(int first, int last, boolean keepWords) {
+        SearchState state = SearchState.get(_trie);
+        state.begin(_letters.length, keepWords);
+        this.searchCells(state, first, last);
+        return state;
+    }
+
+    /*
+     * This method starts a search from every cell in the range, stopping early if a sink asks it to
+     */
+    private void searchCells(SearchState state, int first, int last) {
+        for (int cell = first; cell < last && !state._stopped; cell++) {
+            int node = this.follow(CompactTrie.ROOT, _letters[cell]);
+            if (node != CompactTrie.NO_NODE && !this.cannotBeat(state, node, 1)) {
+                if (_bits != null) {
+                    this.searchBits(state, cell, node, 0, 0L);
+                }
+                else {
+                    this.search(state, cell, node, 0);
+                }
+            }
+            else {
+                state._nodesPruned++;
+            }
         }
+    }
+
+    /*
+     * This method searches the whole board on the calling thread, keeping only the best words or handing each word to
+     * the sink, and returns false if the sink stopped the search
+     */
+    private boolean searchBounded(BestWords best, WordSink sink) {
+        long start = System.nanoTime();
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        SearchState state = SearchState.get(_trie);
+        state.begin(_letters.length, false);
+        state._best = best;
+        state._sink = sink;
+        this.searchCells(state, 0, _letters.length);
+
+        _totalScore = state._score;
+        _wordCount = state._wordCount;
+        _longestWord = state._longestWord;
+        _nodesVisited = state._nodesVisited;
+        _nodesPruned = state._nodesPruned;
+        _solveTime = System.nanoTime() - start;
+        this.record(event, _wordCount, false);
+        return !state._stopped;
+    }
 
-        // If both I and j in  range and we visited
-        // that element of matrix first time
-        if (!_isVisited[i][j]) {
-            // make it visited
-            _isVisited[i][j] = true;
+    /*
+     * This method decides how many starting cells a single parallel task searches. A few tasks per worker lets
+     * workers that finish early steal the rest.
+     */
+    private int splitSize() {
+        return Math.max(1, _letters.length / (_pool.getParallelism() * 4));
+    }
 
-            // This loops through all childs of the current node
-            for (int n = 0; n < Constants.ALPHABET_SIZE; n++) {
-                if (root.getChild(n) != null) {
-                    // 'A' is  added because of numbering system for characters
-                    char letter = (char) (n + 'A');
+    /*
+     * This method finds all of the words within the boggle board. The node passed in is the trie node for the path
+     * ending at this cell, so only neighbors whose letter has a child in the trie are ever followed.
+     */
+    private void search(SearchState state, int cell, int node, int depth) {
+        long[] visited = state._visited;
+        state._nodesVisited++;
+        state._word[depth] = (char) (_letters[cell] + 'A');
+        state._path[depth++] = cell;
 
-                    // This loop recursively searches reaming characters that are adjacent to the current character
-                    for (int a = -1; a <= 1; a++) {
-                        for (int b = -1; b <= 1; b++) {
-                            //conditions insure we dont go out of the array bounds
-                            if (i + a < _size && j + b < _size && i + a >= 0 && j + b >= 0 && !(a == 0 && b == 0) && !_isVisited[i + a][j + b] && _boggle[i + a][j + b] == letter) {
-                                this.search(i + a, j + b,root.getChild(n),string + letter);
-                            }
-                        }
+        // if word is found in trie, and not already found: marks the node and adds to list of found words
+        if ((_trie.dictionaries(node) & _dictionaries) != 0 && state._foundMark[node] != state._solveNumber) {
+            state._foundMark[node] = state._solveNumber;
+            state._score += Scoring.score(depth);
+            state._wordCount++;
+            state._longestWord = Math.max(state._longestWord, depth);
+            if (state._keepWords) {
+                state._wordsFound.add(new String(state._word, 0, depth));
+                state._pathsFound.add(Arrays.copyOf(state._path, depth));
+            }
+            else if (state._best != null) {
+                state._best.offer(state._word, state._path, depth);
+            }
+            else if (state._sink != null
+                    && !state._sink.accept(new String(state._word, 0, depth), Arrays.copyOf(state._path, depth))) {
+                state._stopped = true;
+                return;
+            }
+        }
+
+        // make it visited
+        visited[cell >>> 6] |= 1L << cell;
+
+        // walks the neighbors of the cell and follows the ones that continue a word in the trie
+        for (int neighbor : _topology.neighbors(cell)) {
+            if ((visited[neighbor >>> 6] & (1L << neighbor)) == 0) {
+                int child = this.follow(node, _letters[neighbor]);
+                if (child != CompactTrie.NO_NODE && !this.cannotBeat(state, child, depth + 1)) {
+                    this.search(state, neighbor, child, depth);
+                    if (state._stopped) {
+                        break;
                     }
                 }
+                else {
+                    state._nodesPruned++;
+                }
             }
-            // marks current element as not visited
-            _isVisited[i][j] = false;
         }
+
+        // marks current element as not visited
+        visited[cell >>> 6] &= ~(1L << cell);
     }
 
+    /*
+     * This method is the search for boards with a BitBoard. It finds the same words as search, but the cells of the
+     * path are the bits of visited, and instead of trying each neighbor it goes through the letters that are next to
+     * the cell and that the node has children for. All the unvisited cells holding such a letter are found at once,
+     * and the child for the letter is only looked up once for all of them.
+     */
+    private void searchBits(SearchState state, int cell, int node, int depth, long visited) {
+        BitBoard bits = _bits;
+        state._nodesVisited++;
+        state._word[depth] = (char) (_letters[cell] + 'A');
+        state._path[depth++] = cell;
+
+        if ((_trie.dictionaries(node) & _dictionaries) != 0 && state._foundMark[node] != state._solveNumber
+                && !this.addWord(state, node, depth)) {
+            return;
+        }
+
+        visited |= 1L << cell;
+        long open = bits._neighborCells[cell] & ~visited;
+        int letters = _trie.childMask(node) & bits._neighborLetters[cell];
+        int followed = 0;
+        while (letters != 0) {
+            int letter = Integer.numberOfTrailingZeros(letters);
+            letters &= letters - 1;
+            long cells = open & bits._letterCells[letter];
+            if (cells == 0) {
+                continue;
+            }
+            int child = this.follow(node, letter);
+            if (child == CompactTrie.NO_NODE || this.cannotBeat(state, child, depth + 1)) {
+                continue;
+            }
+            followed += Long.bitCount(cells);
+            do {
+                this.searchBits(state, Long.numberOfTrailingZeros(cells), child, depth, visited);
+                if (state._stopped) {
+                    return;
+                }
+                cells &= cells - 1;
+            } while (cells != 0);
+        }
+        //every open neighbor that was not followed counts as pruned, the same as in search
+        state._nodesPruned += Long.bitCount(open) - followed;
+    }
+
+    /*
+     * This method takes a word searchBits has just found for the first time, marking its node so it is not taken
+     * twice. The word is kept, offered to the best words or handed to the sink, depending on the search. It returns
+     * false if the sink asked the search to stop. search does the same inline, which measured faster on big boards.
+     */
+    private boolean addWord(SearchState state, int node, int depth) {
+        state._foundMark[node] = state._solveNumber;
+        state._score += Scoring.score(depth);
+        state._wordCount++;
+        state._longestWord = Math.max(state._longestWord, depth);
+        if (state._keepWords) {
+            state._wordsFound.add(new String(state._word, 0, depth));
+            state._pathsFound.add(Arrays.copyOf(state._path, depth));
+        }
+        else if (state._best != null) {
+            state._best.offer(state._word, state._path, depth);
+        }
+        else if (state._sink != null
+                && !state._sink.accept(new String(state._word, 0, depth), Arrays.copyOf(state._path, depth))) {
+            state._stopped = true;
+            return false;
+        }
+        return true;
+    }
+
+    /*
+     * This method returns the child of a node for a letter, or NO_NODE if there is none, if every word below it needs
+     * a letter the board does not have, or if every word below it is only in word lists the board is not being solved
+     * with
+     */
+    private int follow(int node, int letter) {
+        int child = _trie.child(node, letter);
+        if (child == CompactTrie.NO_NODE || (_trie.requiredLetters(child) & _missingLetters) != 0) {
+            return CompactTrie.NO_NODE;
+        }
+        if (_skipOtherLists && (_trie.reachableDictionaries(child) & _dictionaries) == 0) {
+            return CompactTrie.NO_NODE;
+        }
+        return child;
+    }
+
+    /*
+     * This method tells whether a search for the best words can skip a node, because even the longest word through it
+     * would be shorter than every word already kept. length is the number of letters on the path to the node.
+     */
+    private boolean cannotBeat(SearchState state, int node, int length) {
+        return state._best != null && state._best.isFull()
+                && length + _trie.depthBelow(node) < state._best.shortest();
+    }
+
+    /*
+     * This is the private inner class for one parallel task. It splits its range of starting cells in half until the
+     * range is small enough, searches it, and returns the words in cell order.
+     */
+    private class CellRange extends RecursiveTask<CellRange> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int _first;
+        private final int _last;
+        private final int _splitSize;
+        private ArrayList<String> _words;
+        private ArrayList<int[]> _paths;
+        private long _nodesVisited;
+        private long _nodesPruned;
+
+        private CellRange(int first, int last, int splitSize) {
+            _first = first;
+            _last = last;
+            _splitSize = splitSize;
+        }
+
+        @Override
+        protected CellRange compute() {
+            if (_last - _first <= _splitSize) {
+                SearchState state = BoggleSolver.this.searchCells(_first, _last, true);
+                _words = state._wordsFound;
+                _paths = state._pathsFound;
+                _nodesVisited = state._nodesVisited;
+                _nodesPruned = state._nodesPruned;
+                return this;
+            }
+
+            int middle = (_first + _last) >>> 1;
+            CellRange left = new CellRange(_first, middle, _splitSize);
+            CellRange right = new CellRange(middle, _last, _splitSize);
+            right.fork();
+            left.compute();
+            right.join();
+
+            //the left half holds the earlier cells, so the right half's words go after it
+            _words = left._words;
+            _paths = left._paths;
+            _words.addAll(right._words);
+            _paths.addAll(right._paths);
+            _nodesVisited = left._nodesVisited + right._nodesVisited;
+            _nodesPruned = left._nodesPruned + right._nodesPruned;
+            return this;
+        }
+    }
 }
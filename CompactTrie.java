@@ -0,0 +1,210 @@
+package boggle;
+
+import java.nio.IntBuffer;
+
+/**
+ * This is the CompactTrie class. It replaces the old TrieNode objects with one flat int array. Every node takes three
+ * ints: a bitmask of which letters it has children for, the index of its first child, and a summary of the words
+ * below the node. Children of a node are stored next to each other in letter order, so the child for a letter is found
+ * by counting the set bits of the mask below that letter. Nodes are referred to by their index and the root is 0.
+ *
+ * One trie can hold up to six word lists at once. The top six bits of the letter mask say which lists the word ending
+ * at the node belongs to, in place of a single word flag, and the top six bits of the first child index say which
+ * lists have any word at or below the node, so a search for some of the lists can skip branches that only lead to
+ * words from the others. A set of lists is passed around as a mask with bit n for list n.
+ *
+ * The summary of the words below a node holds how many letters the longest of them has after the node, in its top six
+ * bits, and the letters that every one of them still needs, in its low 26 bits. The length lets a search for only the
+ * best words give up on a branch whose words could never be long enough to make the cut, and the letters let a search
+ * give up on a branch as soon as it needs a letter the board does not have.
+ * The ints are read through an IntBuffer so the same class works for a trie on the heap and for one mapped straight
+ * from a compiled dictionary image.
+ */
+public final class CompactTrie {
+
+    //layout of a node inside the int array
+    static final int STRIDE = 3;
+    static final int MASK = 0;
+    static final int FIRST_CHILD = 1;
+    static final int BELOW = 2;
+
+    static final int LETTER_BITS = (1 << Constants.ALPHABET_SIZE) - 1;
+    static final int INDEX_BITS = (1 << Constants.ALPHABET_SIZE) - 1;
+    static final int DICTIONARY_SHIFT = Constants.ALPHABET_SIZE;
+    public static final int MAX_DICTIONARIES = Integer.SIZE - DICTIONARY_SHIFT;
+    public static final int ALL_DICTIONARIES = (1 << MAX_DICTIONARIES) - 1;
+    static final int DEPTH_SHIFT = Constants.ALPHABET_SIZE;
+    //the depth below a node has to fit in the six bits above the required letters
+    public static final int MAX_WORD_LENGTH = (1 << (Integer.SIZE - DEPTH_SHIFT)) - 1;
+
+    public static final int ROOT = 0;
+    public static final int NO_NODE = -1;
+
+    //rough size of one old TrieNode with compressed references: the object itself plus its TrieNode[26] array
+    private static final int POINTER_NODE_BYTES = 24 + 16 + Constants.ALPHABET_SIZE * 4;
+
+    private final IntBuffer _nodes;
+    private final int _nodeCount;
+    private final int _maxWordLength;
+
+    /*
+     * Constructor for CompactTrie. Tries are built by the TrieBuilder class.
+     */
+    CompactTrie(int[] nodes, int nodeCount, int maxWordLength) {
+        this(IntBuffer.wrap(nodes), nodeCount, maxWordLength);
+    }
+
+    /*
+     * Constructor for a CompactTrie that reads its nodes from a buffer, used for mapped dictionary images
+     */
+    CompactTrie(IntBuffer nodes, int nodeCount, int maxWordLength) {
+        _nodes = nodes;
+        _nodeCount = nodeCount;
+        _maxWordLength = maxWordLength;
+    }
+
+    /*
+     * This method returns the child of a node for a letter from 0 to 25, or NO_NODE if there is none
+     */
+    public int child(int node, int letter) {
+        int mask = _nodes.get(node * STRIDE + MASK);
+        int bit = 1 << letter;
+        if ((mask & bit) == 0) {
+            return NO_NODE;
+        }
+        //the children are stored in letter order, so the rank of the bit is the offset from the first child
+        return (_nodes.get(node * STRIDE + FIRST_CHILD) & INDEX_BITS) + Integer.bitCount(mask & (bit - 1));
+    }
+
+    /*
+     * This method returns the bitmask of letters that the node has children for
+     */
+    public int childMask(int node) {
+        return _nodes.get(node * STRIDE + MASK) & LETTER_BITS;
+    }
+
+    /*
+     * This method checks if the path to the node spells a complete word in any of the word lists
+     */
+    public boolean isWord(int node) {
+        return this.dictionaries(node) != 0;
+    }
+
+    /*
+     * This method returns the mask of word lists that the word spelled by the path to the node is in
+     */
+    public int dictionaries(int node) {
+        return _nodes.get(node * STRIDE + MASK) >>> DICTIONARY_SHIFT;
+    }
+
+    /*
+     * This method returns the mask of word lists that have a word at this node or anywhere below it
+     */
+    public int reachableDictionaries(int node) {
+        return _nodes.get(node * STRIDE + FIRST_CHILD) >>> DICTIONARY_SHIFT;
+    }
+
+    /*
+     * This method returns how many more letters the longest word at or below the node has, which is 0 if no word
+     * goes further than the node itself
+     */
+    public int depthBelow(int node) {
+        return _nodes.get(node * STRIDE + BELOW) >>> DEPTH_SHIFT;
+    }
+
+    /*
+     * This method returns the bitmask of letters that every word at or below the node has after it. It is 0 if the
+     * path to the node is already a word.
+     */
+    public int requiredLetters(int node) {
+        return _nodes.get(node * STRIDE + BELOW) & LETTER_BITS;
+    }
+
+    /*
+     * This method follows a whole word from the root and returns the node it ends at, or NO_NODE if the word is not a
+     * prefix of anything in the trie
+     */
+    public int find(CharSequence word) {
+        int node = ROOT;
+        for (int i = 0; i < word.length() && node != NO_NODE; i++) {
+            int letter = word.charAt(i) - 'A';
+            if (letter < 0 || letter >= Constants.ALPHABET_SIZE) {
+                return NO_NODE;
+            }
+            node = this.child(node, letter);
+        }
+        return node;
+    }
+
+    /*
+     * This method checks if a word is in the trie
+     */
+    public boolean contains(CharSequence word) {
+        int node = this.find(word);
+        return node != NO_NODE && this.isWord(node);
+    }
+
+    /*
+     * This method checks if a word is in any of the word lists in the mask
+     */
+    public boolean contains(CharSequence word, int dictionaries) {
+        int node = this.find(word);
+        return node != NO_NODE && (this.dictionaries(node) & dictionaries) != 0;
+    }
+
+    /*
+     * This method returns a new cursor at the root of the trie
+     */
+    public TrieCursor cursor() {
+        return new TrieCursor(this);
+    }
+
+    /*
+     * This method returns a new cursor at the root of the trie that only knows the words of the lists in the mask
+     */
+    public TrieCursor cursor(int dictionaries) {
+        return new TrieCursor(this, dictionaries);
+    }
+
+    /*
+     * Getter method for the number of nodes in the trie
+     */
+    public int getNodeCount() {
+        return _nodeCount;
+    }
+
+    /*
+     * Getter method for the length of the longest word in the trie
+     */
+    public int getMaxWordLength() {
+        return _maxWordLength;
+    }
+
+    /*
+     * This method returns how many bytes the node array takes up
+     */
+    public long getMemoryFootprint() {
+        return (long) _nodes.capacity() * Integer.BYTES;
+    }
+
+    /*
+     * This method tells whether the nodes live outside the heap in a mapped file
+     */
+    public boolean isMapped() {
+        return _nodes.isDirect();
+    }
+
+    /*
+     * This method returns a read only view of the node array so it can be written to a dictionary image
+     */
+    IntBuffer nodes() {
+        return _nodes.asReadOnlyBuffer();
+    }
+
+    /*
+     * This method estimates how many bytes the same trie would have taken using one TrieNode object per node
+     */
+    public long getPointerTrieFootprint() {
+        return (long) _nodeCount * POINTER_NODE_BYTES;
+    }
+}
@@ -14,8 +14,9 @@ public class Constants {
     public static final int VBOX_SPACING = 10;
     public static final int ROTATION_ANGLE = 90;
     public static final int GAME_TIME_LENGTH = 120;
-    public static final int POSTPANE_WIDTH = 250;
+    public static final int POSTPANE_WIDTH = 480;
     public static final int POSTPANE_HEIGHT = 500;
+    public static final int RESULT_ROW_HEIGHT = 24;
     public static final int PREPANE_WIDTH = 350;
     public static final int PREPANE_HEIGHT = 300;
 
@@ -0,0 +1,338 @@
+package boggle;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * This is the Dictionary class. It loads the word list once per JVM and builds the trie that every BoggleSolver
+ * shares. The trie is never changed after it has been built, so any number of solvers can read it at the same time.
+ * If a compiled dictionary image made by DictionaryTool is found and still matches the word list, the trie is
+ * memory-mapped from it instead of being built from the text file.
+ *
+ * Several word lists, such as a tournament list, a casual list and one without offensive words, can be loaded into
+ * the one trie by listing them in the boggle.dictionaries property as name=path pairs separated by commas. Each word
+ * in the trie knows which lists it is in, so the lists share every node they have in common. The first list is the
+ * one solvers use unless they are given a mask of lists to use instead.
+ */
+public final class Dictionary {
+
+    //system properties that can be set to point the game at a different word list or image on disk
+    public static final String PATH_PROPERTY = "boggle.dictionary";
+    public static final String IMAGE_PROPERTY = "boggle.dictionary.image";
+    public static final String LISTS_PROPERTY = "boggle.dictionaries";
+    public static final String DEFAULT_NAME = "default";
+    //the mask of the first word list, which is the one used when no other is asked for
+    public static final int DEFAULT_MASK = 1;
+    public static final String DEFAULT_FILE = "dictionary.txt";
+    public static final String DEFAULT_IMAGE = "dictionary.bin";
+
+    private static volatile Dictionary _instance;
+
+    private final CompactTrie _trie;
+    private final String[] _names;
+    private final int _wordCount;
+    private final long _buildTime;
+    private final int _checksum;
+    private final boolean _fromImage;
+
+    /*
+     * Constructor for Dictionary. It is only called once the trie has been fully built or mapped.
+     */
+    Dictionary(CompactTrie trie, String[] names, int wordCount, long buildTime, int checksum, boolean fromImage) {
+        _trie = trie;
+        _names = names;
+        _wordCount = wordCount;
+        _buildTime = buildTime;
+        _checksum = checksum;
+        _fromImage = fromImage;
+    }
+
+    /*
+     * This method returns the shared dictionary, loading it the first time it is asked for. Every later call returns
+     * the same instance so the word list is only ever read once.
+     */
+    public static Dictionary getInstance() throws IOException {
+        Dictionary dictionary = _instance;
+        if (dictionary == null) {
+            synchronized (Dictionary.class) {
+                dictionary = _instance;
+                if (dictionary == null) {
+                    DictionaryLoadEvent event = new DictionaryLoadEvent();
+                    event.begin();
+                    dictionary = load();
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.fromImage = dictionary.isFromImage();
+                        event.wordCount = dictionary.getWordCount();
+                        event.nodeCount = dictionary.getTrie().getNodeCount();
+                        event.trieBytes = dictionary.getTrie().getMemoryFootprint();
+                        event.commit();
+                    }
+                    SolverMetrics.getInstance().recordDictionary(dictionary);
+                    _instance = dictionary;
+                }
+            }
+        }
+        return dictionary;
+    }
+
+    /*
+     * This method loads the dictionary. The compiled image is used when it exists and its checksum matches the word
+     * lists, otherwise the word lists are parsed as text.
+     */
+    private static Dictionary load() throws IOException {
+        long start = System.nanoTime();
+        File image = imageFile();
+
+        if (image.isFile()) {
+            Dictionary mapped = DictionaryImage.map(image, checksum(wordLists()), start);
+            if (mapped != null) {
+                return mapped;
+            }
+        }
+        return parseWordList();
+    }
+
+    /*
+     * This method parses the word lists as text, skipping any compiled image. It is also used when compiling a new
+     * image.
+     */
+    static Dictionary parseWordList() throws IOException {
+        String[][] lists = wordLists();
+        String[] names = new String[lists.length];
+        InputStream[] streams = new InputStream[lists.length];
+        try {
+            for (int n = 0; n < lists.length; n++) {
+                names[n] = lists[n][0];
+                streams[n] = openWordList(lists[n][1]);
+                if (streams[n] == null && lists[n][1] == null) {
+                    throw new FileNotFoundException("Could not find " + DEFAULT_FILE + " on the classpath or in "
+                            + new File(DEFAULT_FILE).getAbsoluteFile().getParent());
+                }
+                if (streams[n] == null) {
+                    throw new FileNotFoundException("Could not find word list " + lists[n][0] + " at " + lists[n][1]);
+                }
+            }
+            return parse(names, streams);
+        }
+        finally {
+            for (InputStream stream : streams) {
+                if (stream != null) {
+                    stream.close();
+                }
+            }
+        }
+    }
+
+    /*
+     * This method builds a dictionary with one word list named default from a stream with one word per line
+     */
+    static Dictionary parse(InputStream stream) throws IOException {
+        return parse(new String[] {DEFAULT_NAME}, new InputStream[] {stream});
+    }
+
+    /*
+     * This method builds a dictionary from word lists with one word per line. Each line is added straight into the
+     * trie as it is read so the whole file never has to be held in memory. A checksum of the names and text of the
+     * lists is kept so that a compiled image can later be matched to the word lists it came from.
+     */
+    static Dictionary parse(String[] names, InputStream[] streams) throws IOException {
+        long start = System.nanoTime();
+        CRC32 crc = new CRC32();
+        TrieBuilder builder = new TrieBuilder();
+        int count = 0;
+
+        for (int n = 0; n < streams.length; n++) {
+            crc.update((names[n] + "\n").getBytes(StandardCharsets.US_ASCII));
+            CheckedInputStream checked = new CheckedInputStream(streams[n], crc);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(checked, StandardCharsets.US_ASCII));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                //words in more than one list are only counted once
+                if (!line.isEmpty() && builder.add(line, n)) {
+                    count++;
+                }
+            }
+        }
+        CompactTrie trie = builder.build();
+        return new Dictionary(trie, names, count, System.nanoTime() - start, (int) crc.getValue(), false);
+    }
+
+    /*
+     * This method reads through the word lists and returns the CRC32 of their names and contents, the same way parse
+     * works it out. It returns null if a list cannot be found, in which case there is nothing to compare an image
+     * against and the image is trusted as it is.
+     */
+    private static Integer checksum(String[][] lists) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[1 << 16];
+        for (String[] list : lists) {
+            try (InputStream stream = openWordList(list[1])) {
+                if (stream == null) {
+                    return null;
+                }
+                crc.update((list[0] + "\n").getBytes(StandardCharsets.US_ASCII));
+                CheckedInputStream checked = new CheckedInputStream(stream, crc);
+                while (checked.read(buffer) != -1) {
+                    //reading is all that is needed, the checksum is updated as the bytes go past
+                }
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    /*
+     * This method returns the word lists to load as pairs of a name and a path. Without the boggle.dictionaries
+     * property there is a single list named default with no path, which is found the usual way.
+     */
+    private static String[][] wordLists() {
+        String configured = System.getProperty(LISTS_PROPERTY);
+        if (configured == null || configured.isBlank()) {
+            return new String[][] {{DEFAULT_NAME, null}};
+        }
+
+        String[] entries = configured.split(",");
+        if (entries.length > CompactTrie.MAX_DICTIONARIES) {
+            throw new IllegalArgumentException("At most " + CompactTrie.MAX_DICTIONARIES + " word lists can be loaded");
+        }
+        String[][] lists = new String[entries.length][];
+        for (int n = 0; n < entries.length; n++) {
+            int equals = entries[n].indexOf('=');
+            if (equals <= 0 || equals == entries[n].length() - 1) {
+                throw new IllegalArgumentException("Word lists must be given as name=path, not " + entries[n]);
+            }
+            lists[n] = new String[] {entries[n].substring(0, equals).trim(), entries[n].substring(equals + 1).trim()};
+            for (int m = 0; m < n; m++) {
+                if (lists[m][0].equals(lists[n][0])) {
+                    throw new IllegalArgumentException("Word list " + lists[n][0] + " is given twice");
+                }
+            }
+        }
+        return lists;
+    }
+
+    /*
+     * This method opens a word list given by path, either a file or a resource on the classpath. It returns null if
+     * neither exists. A null path opens the default word list.
+     */
+    private static InputStream openWordList(String path) throws IOException {
+        if (path == null) {
+            return openWordList();
+        }
+        if (new File(path).isFile()) {
+            return new BufferedInputStream(new FileInputStream(path));
+        }
+        InputStream stream = Dictionary.class.getResourceAsStream(path.startsWith("/") ? path : "/" + path);
+        return stream == null ? null : new BufferedInputStream(stream);
+    }
+
+    /*
+     * This method finds the word list. A path given through the boggle.dictionary property is used first, then the
+     * dictionary.txt bundled on the classpath, and finally a dictionary.txt in the working directory. It returns null
+     * if none of them exist.
+     */
+    private static InputStream openWordList() throws IOException {
+        String configured = System.getProperty(PATH_PROPERTY);
+        if (configured != null) {
+            return new BufferedInputStream(new FileInputStream(configured));
+        }
+
+        InputStream stream = Dictionary.class.getResourceAsStream(DEFAULT_FILE);
+        if (stream == null) {
+            stream = Dictionary.class.getResourceAsStream("/" + DEFAULT_FILE);
+        }
+        if (stream == null) {
+            File file = new File(DEFAULT_FILE);
+            if (!file.isFile()) {
+                return null;
+            }
+            stream = new FileInputStream(file);
+        }
+        return new BufferedInputStream(stream);
+    }
+
+    /*
+     * This method returns where the compiled image is kept. It can be changed with the boggle.dictionary.image
+     * property and otherwise is dictionary.bin in the working directory.
+     */
+    static File imageFile() {
+        return new File(System.getProperty(IMAGE_PROPERTY, DEFAULT_IMAGE));
+    }
+
+    /*
+     * Getter method for the trie holding every word
+     */
+    public CompactTrie getTrie() {
+        return _trie;
+    }
+
+    /*
+     * Getter method for the names of the word lists in the trie, in the order of their bits in a mask
+     */
+    public List<String> getNames() {
+        return List.of(_names);
+    }
+
+    /*
+     * This method returns the mask that selects the named word lists
+     */
+    public int getMask(String... names) {
+        int mask = 0;
+        for (String name : names) {
+            int n = Arrays.asList(_names).indexOf(name);
+            if (n < 0) {
+                throw new IllegalArgumentException("There is no word list named " + name + ", only "
+                        + String.join(", ", _names));
+            }
+            mask |= 1 << n;
+        }
+        return mask;
+    }
+
+    /*
+     * This method returns the mask of the word list used when no other is asked for, which is the first one
+     */
+    public int getDefaultMask() {
+        return DEFAULT_MASK;
+    }
+
+    /*
+     * This method returns the mask that selects every word list in the trie
+     */
+    public int getAllMask() {
+        return (1 << _names.length) - 1;
+    }
+
+    /*
+     * Getter method for the number of different words that were loaded across all the word lists
+     */
+    public int getWordCount() {
+        return _wordCount;
+    }
+
+    /*
+     * Getter method for how long loading the dictionary took, in nanoseconds
+     */
+    public long getBuildTime() {
+        return _buildTime;
+    }
+
+    /*
+     * Getter method for the CRC32 of the word list this dictionary was built from
+     */
+    public int getChecksum() {
+        return _checksum;
+    }
+
+    /*
+     * This method tells whether the trie was mapped from a compiled image rather than parsed from text
+     */
+    public boolean isFromImage() {
+        return _fromImage;
+    }
+}
@@ -0,0 +1,138 @@
+package boggle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * This is the DictionaryImage class. It writes a CompactTrie to a binary file and maps that file back into memory.
+ * The file is a small header followed by the node array exactly as the CompactTrie uses it, so the mapped trie is
+ * read in place without being copied onto the heap. Every JVM that maps the same file shares it through the page
+ * cache. The names of the word lists in the trie come after the nodes.
+ *
+ * Header layout (little endian ints):
+ *   magic, version, stride, checksum of the word lists, word count, node count, longest word, word list count
+ * Each name is then a short length followed by its ASCII characters.
+ */
+final class DictionaryImage {
+
+    static final int MAGIC = 0x42474C54; //"BGLT"
+    //version 2 keeps the word lists of each word in the top bits of its node in place of a single word flag, version 3
+    //adds the depth of the longest word below each node, and version 4 packs the letters every word below needs next
+    //to that depth
+    static final int VERSION = 4;
+    static final int HEADER_BYTES = 8 * Integer.BYTES;
+
+    private DictionaryImage() {
+    }
+
+    /*
+     * This method writes the trie of a parsed dictionary to a file. The file is written next to the target first and
+     * then moved into place, so a JVM that is mapping the old image never sees a half written one.
+     */
+    static void write(Dictionary dictionary, File file) throws IOException {
+        CompactTrie trie = dictionary.getTrie();
+        IntBuffer nodes = trie.nodes();
+        List<String> names = dictionary.getNames();
+        int nameBytes = 0;
+        for (String name : names) {
+            nameBytes += Short.BYTES + name.length();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + nodes.capacity() * Integer.BYTES + nameBytes)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(CompactTrie.STRIDE);
+        buffer.putInt(dictionary.getChecksum());
+        buffer.putInt(dictionary.getWordCount());
+        buffer.putInt(trie.getNodeCount());
+        buffer.putInt(trie.getMaxWordLength());
+        buffer.putInt(names.size());
+        buffer.asIntBuffer().put(nodes);
+        buffer.position(HEADER_BYTES + nodes.capacity() * Integer.BYTES);
+        for (String name : names) {
+            buffer.putShort((short) name.length());
+            buffer.put(name.getBytes(StandardCharsets.US_ASCII));
+        }
+        buffer.rewind();
+
+        Path target = file.toPath().toAbsolutePath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /*
+     * This method maps an image file and returns it as a Dictionary. It returns null if the file is not an image of
+     * this version, or if a checksum is given and the image was compiled from a different word list.
+     */
+    static Dictionary map(File file, Integer checksum, long start) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != CompactTrie.STRIDE) {
+            return null;
+        }
+        int imageChecksum = buffer.getInt(12);
+        if (checksum != null && checksum != imageChecksum) {
+            return null;
+        }
+        int wordCount = buffer.getInt(16);
+        int nodeCount = buffer.getInt(20);
+        int maxWordLength = buffer.getInt(24);
+        int nameCount = buffer.getInt(28);
+        long nodeBytes = (long) nodeCount * CompactTrie.STRIDE * Integer.BYTES;
+        if (buffer.capacity() < HEADER_BYTES + nodeBytes || nameCount < 1
+                || nameCount > CompactTrie.MAX_DICTIONARIES) {
+            return null;
+        }
+
+        //the names are read first, and anything that does not fit where they should be means the file is damaged
+        String[] names = new String[nameCount];
+        int offset = (int) (HEADER_BYTES + nodeBytes);
+        for (int n = 0; n < nameCount; n++) {
+            if (offset + Short.BYTES > buffer.capacity()) {
+                return null;
+            }
+            byte[] name = new byte[buffer.getShort(offset) & 0xFFFF];
+            offset += Short.BYTES;
+            if (offset + name.length > buffer.capacity()) {
+                return null;
+            }
+            buffer.get(offset, name);
+            offset += name.length;
+            names[n] = new String(name, StandardCharsets.US_ASCII);
+        }
+        if (offset != buffer.capacity()) {
+            return null;
+        }
+
+        buffer.position(HEADER_BYTES);
+        IntBuffer nodes = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        nodes.limit(nodeCount * CompactTrie.STRIDE);
+        CompactTrie trie = new CompactTrie(nodes.slice(), nodeCount, maxWordLength);
+        return new Dictionary(trie, names, wordCount, System.nanoTime() - start, imageChecksum, true);
+    }
+}
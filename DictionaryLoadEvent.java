@@ -0,0 +1,32 @@
+package boggle;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This is the DictionaryLoadEvent class. It is a Java Flight Recorder event covering the one time the shared
+ * dictionary is loaded, whether it was mapped from a compiled image or parsed from the word list.
+ */
+@Name("boggle.DictionaryLoad")
+@Label("Dictionary Load")
+@Category("Boggle")
+@Description("Loading the shared dictionary and its trie")
+final class DictionaryLoadEvent extends Event {
+
+    @Label("From Image")
+    boolean fromImage;
+
+    @Label("Words")
+    int wordCount;
+
+    @Label("Trie Nodes")
+    int nodeCount;
+
+    @Label("Trie Size")
+    @DataAmount
+    long trieBytes;
+}
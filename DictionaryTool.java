@@ -0,0 +1,59 @@
+package boggle;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * This is the DictionaryTool class. It is a small command line program for working with the dictionary outside of
+ * the game, for example to check how much memory the trie takes and how long it takes to build, or to compile the
+ * word list into a binary image that the game can memory-map at startup.
+ *
+ * Usage: java boggle.DictionaryTool stats
+ *        java boggle.DictionaryTool compile [image file]
+ */
+public class DictionaryTool {
+
+    public static void main(String[] args) throws IOException {
+        String command = args.length > 0 ? args[0] : "stats";
+
+        switch (command) {
+            case "stats":
+                printStats();
+                break;
+            case "compile":
+                compile(args.length > 1 ? new File(args[1]) : Dictionary.imageFile());
+                break;
+            default:
+                System.err.println("Unknown command " + command);
+                System.err.println("Usage: java boggle.DictionaryTool stats | compile [image file]");
+                System.exit(1);
+        }
+    }
+
+    /*
+     * This method loads the dictionary and prints the size of the trie and the time it took to build
+     */
+    private static void printStats() throws IOException {
+        Dictionary dictionary = Dictionary.getInstance();
+        CompactTrie trie = dictionary.getTrie();
+
+        System.out.println("Loaded from:        " + (dictionary.isFromImage() ? "image " + Dictionary.imageFile() : "text"));
+        System.out.println("Word lists:         " + String.join(", ", dictionary.getNames()));
+        System.out.println("Words:              " + dictionary.getWordCount());
+        System.out.println("Trie nodes:         " + trie.getNodeCount());
+        System.out.println("Longest word:       " + trie.getMaxWordLength());
+        System.out.printf("Load time:          %.1f ms%n", dictionary.getBuildTime() / 1e6);
+        System.out.printf("Compact trie size:  %.2f MB%n", trie.getMemoryFootprint() / 1e6);
+        System.out.printf("TrieNode estimate:  %.2f MB%n", trie.getPointerTrieFootprint() / 1e6);
+    }
+
+    /*
+     * This method parses the word list and writes it out as a dictionary image
+     */
+    private static void compile(File image) throws IOException {
+        Dictionary dictionary = Dictionary.parseWordList();
+        DictionaryImage.write(dictionary, image);
+        System.out.printf("Wrote %d words (%d nodes) to %s, checksum %08x%n", dictionary.getWordCount(),
+                dictionary.getTrie().getNodeCount(), image, dictionary.getChecksum());
+    }
+}
@@ -0,0 +1,362 @@
+package boggle;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This is the GameLog class. It records what happens in games so they can be studied after the PostPane is closed:
+ * the board each game is played on, every tile selected and deselected, every word checked with the points it got,
+ * and the final score. GameLogReader reads the records back.
+ *
+ * Records are small: a tag byte, then the milliseconds since the record before, the game and the rest of the record
+ * as unsigned varints, seven bits to a byte, so a tile selection takes four to six bytes. They are put into a direct
+ * buffer and written to the file with one FileChannel write when the buffer fills up, when flush is called, or when the
+ * log is closed. Once a file would grow past its size limit the log moves on to a new one, so old games can be
+ * archived or deleted a file at a time.
+ *
+ * Files are called games-session-index.log. The session is the time the log was opened, so several runs can write
+ * to the same directory, and the index counts the files of a session. Games are numbered from 0 within a session.
+ *
+ * Layout (little endian):
+ *   header: magic, version, session, file index, time the file was started
+ *   record: tag, time step, game, then for each tag
+ *     GAME_STARTED     rows, columns, 1 if the board wraps or 0, then the letters row by row as bytes
+ *     TILE_SELECTED    cell
+ *     TILE_DESELECTED  cell
+ *     TILES_CLEARED    nothing
+ *     WORD_CHECKED     points the word got, 0 if it was not accepted, then its length and letters as bytes
+ *     GAME_ENDED       final score
+ *
+ * Writing a record never throws. If the file cannot be written the log stops recording and the error is thrown by the
+ * next call to flush or close, so a full disk never stops a game. The class is thread safe.
+ */
+public final class GameLog implements Closeable {
+
+    public static final String DIRECTORY_PROPERTY = "boggle.log.dir";
+    public static final String FILE_SIZE_PROPERTY = "boggle.log.fileSize";
+    public static final long DEFAULT_FILE_SIZE = 64L << 20;
+
+    static final int MAGIC = 0x42474C47; //"BGLG"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+    static final byte GAME_STARTED = 1;
+    static final byte TILE_SELECTED = 2;
+    static final byte TILE_DESELECTED = 3;
+    static final byte TILES_CLEARED = 4;
+    static final byte WORD_CHECKED = 5;
+    static final byte GAME_ENDED = 6;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_VARINT_BYTES = 10;
+    //the tag, the time step and the game, which every record starts with
+    private static final int MAX_START_BYTES = 1 + 2 * MAX_VARINT_BYTES;
+    //files are memory-mapped when they are read, which needs them to fit in an int
+    private static final long MAX_FILE_SIZE = Integer.MAX_VALUE;
+
+    private static GameLog _shared;
+
+    private final File _directory;
+    private final long _maxFileSize;
+    private final long _session;
+    private ByteBuffer _buffer;
+    private FileChannel _channel;
+    private int _fileIndex;
+    //bytes of the current file already written to the channel
+    private long _written;
+    private long _lastTime;
+    private long _nextGame;
+    private long _records;
+    private IOException _error;
+    private boolean _closed;
+
+    /*
+     * Constructor for a GameLog that starts a new file every 64 MB
+     */
+    public GameLog(File directory) throws IOException {
+        this(directory, DEFAULT_FILE_SIZE);
+    }
+
+    /*
+     * Constructor for GameLog. It makes the directory if needed and opens the first file of a new session.
+     */
+    public GameLog(File directory, long maxFileSize) throws IOException {
+        if (maxFileSize < HEADER_BYTES + BUFFER_SIZE || maxFileSize > MAX_FILE_SIZE) {
+            throw new IllegalArgumentException("A log file must be from " + (HEADER_BYTES + BUFFER_SIZE) + " to "
+                    + MAX_FILE_SIZE + " bytes");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not make the log directory " + directory);
+        }
+        _directory = directory;
+        _maxFileSize = maxFileSize;
+        _buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        //two logs opened in the same millisecond would share a session, so the later one takes the next free number
+        long session = System.currentTimeMillis();
+        while (true) {
+            try {
+                _channel = FileChannel.open(file(directory, session, 0).toPath(), StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+                break;
+            }
+            catch (FileAlreadyExistsException e) {
+                session++;
+            }
+        }
+        _session = session;
+        this.writeHeader();
+    }
+
+    /*
+     * This method returns the log the game records to, opening it the first time it is asked for, or null if no
+     * directory was given with boggle.log.dir or it could not be opened. The log is closed when the JVM exits.
+     */
+    public static synchronized GameLog shared() {
+        if (_shared == null) {
+            String directory = System.getProperty(DIRECTORY_PROPERTY);
+            if (directory != null) {
+                try {
+                    _shared = new GameLog(new File(directory), Long.getLong(FILE_SIZE_PROPERTY, DEFAULT_FILE_SIZE));
+                    GameLog log = _shared;
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        try {
+                            log.close();
+                        }
+                        catch (IOException e) {
+                            System.err.println("Could not write game log: " + e.getMessage());
+                        }
+                    }, "boggle-log-close"));
+                }
+                catch (IOException e) {
+                    System.err.println("Could not open game log " + directory + ": " + e.getMessage());
+                }
+            }
+        }
+        return _shared;
+    }
+
+    /*
+     * This method returns the file for a session and index
+     */
+    static File file(File directory, long session, int index) {
+        return new File(directory, String.format("games-%013d-%05d.log", session, index));
+    }
+
+    /*
+     * This method records the board of a new game and returns the number the rest of the game is recorded under
+     */
+    public synchronized long startGame(char[][] board, boolean wrap) {
+        long game = _nextGame++;
+        int cells = board.length * board[0].length;
+        if (this.begin(GAME_STARTED, game, MAX_START_BYTES + 2 * MAX_VARINT_BYTES + 1 + cells)) {
+            this.putVarint(board.length);
+            this.putVarint(board[0].length);
+            _buffer.put((byte) (wrap ? 1 : 0));
+            for (char[] row : board) {
+                for (char letter : row) {
+                    _buffer.put((byte) letter);
+                }
+            }
+        }
+        return game;
+    }
+
+    /*
+     * This method records a tile being added to the selection
+     */
+    public synchronized void selectTile(long game, int cell) {
+        if (this.begin(TILE_SELECTED, game, MAX_START_BYTES + MAX_VARINT_BYTES)) {
+            this.putVarint(cell);
+        }
+    }
+
+    /*
+     * This method records the last tile of the selection being taken off it
+     */
+    public synchronized void deselectTile(long game, int cell) {
+        if (this.begin(TILE_DESELECTED, game, MAX_START_BYTES + MAX_VARINT_BYTES)) {
+            this.putVarint(cell);
+        }
+    }
+
+    /*
+     * This method records the whole selection being cleared
+     */
+    public synchronized void clearTiles(long game) {
+        this.begin(TILES_CLEARED, game, MAX_START_BYTES);
+    }
+
+    /*
+     * This method records a word being checked and the points it got, which are 0 if it was not accepted
+     */
+    public synchronized void checkWord(long game, String word, int score) {
+        if (this.begin(WORD_CHECKED, game, MAX_START_BYTES + 2 * MAX_VARINT_BYTES + word.length())) {
+            this.putVarint(score);
+            this.putVarint(word.length());
+            for (int i = 0; i < word.length(); i++) {
+                _buffer.put((byte) word.charAt(i));
+            }
+        }
+    }
+
+    /*
+     * This method records the end of a game and its final score
+     */
+    public synchronized void endGame(long game, int score) {
+        if (this.begin(GAME_ENDED, game, MAX_START_BYTES + MAX_VARINT_BYTES)) {
+            this.putVarint(score);
+        }
+    }
+
+    /*
+     * This method makes room for a record of at most size bytes, moving on to a new file if this one would get too
+     * large, and writes the start of the record. It returns false if the record cannot be written.
+     */
+    private boolean begin(byte tag, long game, int size) {
+        if (_error != null || _closed) {
+            return false;
+        }
+        try {
+            //a file always gets at least one record, however large, so a huge board cannot make it rotate forever
+            long fileSize = _written + _buffer.position();
+            if (fileSize + size > _maxFileSize && fileSize > HEADER_BYTES) {
+                this.rotate();
+            }
+            if (_buffer.remaining() < size) {
+                this.drain();
+                if (_buffer.capacity() < size) {
+                    _buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+        }
+        catch (IOException e) {
+            _error = e;
+            return false;
+        }
+
+        //the clock can be set back, but the time steps are unsigned
+        long now = Math.max(System.currentTimeMillis(), _lastTime);
+        _buffer.put(tag);
+        this.putVarint(now - _lastTime);
+        this.putVarint(game);
+        _lastTime = now;
+        _records++;
+        return true;
+    }
+
+    /*
+     * This method writes a number that is not negative in as many bytes as it needs, seven bits at a time with the
+     * lowest first and the top bit of each byte set if more follow
+     */
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            _buffer.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        _buffer.put((byte) value);
+    }
+
+    /*
+     * This method writes the header of a new file into the buffer
+     */
+    private void writeHeader() {
+        _lastTime = System.currentTimeMillis();
+        _buffer.putInt(MAGIC);
+        _buffer.putInt(VERSION);
+        _buffer.putLong(_session);
+        _buffer.putInt(_fileIndex);
+        _buffer.putLong(_lastTime);
+    }
+
+    /*
+     * This method writes what is in the buffer to the file
+     */
+    private void drain() throws IOException {
+        _buffer.flip();
+        while (_buffer.hasRemaining()) {
+            _written += _channel.write(_buffer);
+        }
+        _buffer.clear();
+    }
+
+    /*
+     * This method finishes the current file and starts the next one of the session
+     */
+    private void rotate() throws IOException {
+        this.drain();
+        _channel.close();
+        _fileIndex++;
+        _channel = FileChannel.open(file(_directory, _session, _fileIndex).toPath(), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        _written = 0;
+        this.writeHeader();
+    }
+
+    /*
+     * This method writes every record so far to the file. It throws the error that stopped the log if there was one.
+     */
+    public synchronized void flush() throws IOException {
+        if (_error == null && !_closed) {
+            try {
+                this.drain();
+            }
+            catch (IOException e) {
+                _error = e;
+            }
+        }
+        if (_error != null) {
+            throw _error;
+        }
+    }
+
+    /*
+     * This method writes every record so far and closes the file. Nothing is recorded after this.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (_closed) {
+            return;
+        }
+        try {
+            this.flush();
+        }
+        finally {
+            _closed = true;
+            _channel.close();
+        }
+    }
+
+    /*
+     * Getter method for the directory the log writes to
+     */
+    public File getDirectory() {
+        return _directory;
+    }
+
+    /*
+     * Getter method for the session the log's files are named after
+     */
+    public long getSession() {
+        return _session;
+    }
+
+    /*
+     * Getter method for the number of records written
+     */
+    public synchronized long getRecordCount() {
+        return _records;
+    }
+
+    /*
+     * Getter method for the number of files the log has written to
+     */
+    public synchronized int getFileCount() {
+        return _fileIndex + 1;
+    }
+}
@@ -0,0 +1,212 @@
+package boggle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This is the GameLogReader class. It reads back the files a GameLog writes, memory-mapping each one and decoding its
+ * records straight from the mapped bytes, and hands every record to a Visitor in the order it was written. Files are
+ * read session by session and file by file, so a game that carried on into the next file of its session is seen whole.
+ *
+ * Game numbers only count from 0 within a session, so the reader adds the number of games in the sessions before it.
+ * Every game a reader replays gets its own number, however many runs wrote to the directory. A record cut short at the
+ * end of a file, such as the last one written before a crash, is skipped.
+ */
+public final class GameLogReader {
+
+    private static final Pattern FILE_NAME = Pattern.compile("games-(\\d+)-(\\d+)\\.log");
+
+    /*
+     * This is the interface for what a replay does with each record. Times are milliseconds since the epoch and cells
+     * are numbered row by row. Every method does nothing unless it is overridden.
+     */
+    public interface Visitor {
+
+        default void gameStarted(long game, long time, char[][] board, boolean wrap) {
+        }
+
+        default void tileSelected(long game, long time, int cell) {
+        }
+
+        default void tileDeselected(long game, long time, int cell) {
+        }
+
+        default void tilesCleared(long game, long time) {
+        }
+
+        default void wordChecked(long game, long time, String word, int score) {
+        }
+
+        default void gameEnded(long game, long time, int score) {
+        }
+    }
+
+    private final List<File> _files;
+    private long _bytes;
+    private long _records;
+    private long _games;
+
+    /*
+     * Constructor for GameLogReader. It finds the log files in a directory but does not read them yet.
+     */
+    public GameLogReader(File directory) throws IOException {
+        File[] files = directory.listFiles((dir, name) -> FILE_NAME.matcher(name).matches());
+        if (files == null) {
+            throw new IOException("Could not list the log directory " + directory);
+        }
+        _files = new ArrayList<>(List.of(files));
+        //the numbers are compared rather than the names, in case an index outgrows its padding
+        _files.sort(Comparator.comparingLong((File file) -> number(file, 1))
+                .thenComparingLong(file -> number(file, 2)));
+    }
+
+    private static long number(File file, int group) {
+        Matcher matcher = FILE_NAME.matcher(file.getName());
+        matcher.matches();
+        return Long.parseLong(matcher.group(group));
+    }
+
+    /*
+     * This method reads every file in order and hands each record to the visitor. It returns the number of records
+     * read.
+     */
+    public long replay(Visitor visitor) throws IOException {
+        long session = -1;
+        //games in the sessions read before the current one, and in the current one so far
+        long base = 0;
+        long sessionGames = 0;
+        _bytes = 0;
+        _records = 0;
+
+        for (File file : _files) {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException(file + " is too large to be a game log");
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.limit() < GameLog.HEADER_BYTES || buffer.getInt() != GameLog.MAGIC) {
+                throw new IOException(file + " is not a game log");
+            }
+            if (buffer.getInt() != GameLog.VERSION) {
+                throw new IOException(file + " was written by another version of the game log");
+            }
+            long fileSession = buffer.getLong();
+            buffer.getInt();
+            long time = buffer.getLong();
+            if (fileSession != session) {
+                session = fileSession;
+                base += sessionGames;
+                sessionGames = 0;
+            }
+
+            try {
+                while (buffer.hasRemaining()) {
+                    byte tag = buffer.get();
+                    time += getVarint(buffer);
+                    long sessionGame = getVarint(buffer);
+                    long game = base + sessionGame;
+                    switch (tag) {
+                        case GameLog.GAME_STARTED:
+                            int rows = (int) getVarint(buffer);
+                            int columns = (int) getVarint(buffer);
+                            boolean wrap = buffer.get() != 0;
+                            char[][] board = new char[rows][columns];
+                            for (char[] row : board) {
+                                for (int j = 0; j < columns; j++) {
+                                    row[j] = (char) buffer.get();
+                                }
+                            }
+                            sessionGames = Math.max(sessionGames, sessionGame + 1);
+                            visitor.gameStarted(game, time, board, wrap);
+                            break;
+                        case GameLog.TILE_SELECTED:
+                            visitor.tileSelected(game, time, (int) getVarint(buffer));
+                            break;
+                        case GameLog.TILE_DESELECTED:
+                            visitor.tileDeselected(game, time, (int) getVarint(buffer));
+                            break;
+                        case GameLog.TILES_CLEARED:
+                            visitor.tilesCleared(game, time);
+                            break;
+                        case GameLog.WORD_CHECKED:
+                            int score = (int) getVarint(buffer);
+                            char[] letters = new char[(int) getVarint(buffer)];
+                            for (int i = 0; i < letters.length; i++) {
+                                letters[i] = (char) buffer.get();
+                            }
+                            visitor.wordChecked(game, time, new String(letters), score);
+                            break;
+                        case GameLog.GAME_ENDED:
+                            visitor.gameEnded(game, time, (int) getVarint(buffer));
+                            break;
+                        default:
+                            throw new IOException(file + " has an unknown record at byte " + buffer.position());
+                    }
+                    _records++;
+                }
+            }
+            catch (BufferUnderflowException | NegativeArraySizeException e) {
+                //the last record of the file was cut short
+            }
+            _bytes += buffer.limit();
+        }
+        _games = base + sessionGames;
+        return _records;
+    }
+
+    /*
+     * This method reads a number written by GameLog.putVarint
+     */
+    private static long getVarint(MappedByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte next = buffer.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /*
+     * Getter method for the log files, in the order they are read
+     */
+    public List<File> getFiles() {
+        return Collections.unmodifiableList(_files);
+    }
+
+    /*
+     * Getter method for the number of bytes the last replay read
+     */
+    public long getBytes() {
+        return _bytes;
+    }
+
+    /*
+     * Getter method for the number of records the last replay read
+     */
+    public long getRecordCount() {
+        return _records;
+    }
+
+    /*
+     * Getter method for the number of games in the sessions the last replay read
+     */
+    public long getGameCount() {
+        return _games;
+    }
+}
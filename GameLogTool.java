@@ -0,0 +1,153 @@
+package boggle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This is the GameLogTool class. It is a small command line program for looking through the games a GameLog has
+ * recorded, by default in the directory given with boggle.log.dir.
+ *
+ *   stats          counts the games, moves and checked words in the log and how fast it was read
+ *   words [count]  solves the board of every game and prints, for the count words that were on the most boards, how
+ *                  often players found them when they could have (20 words by default)
+ *
+ * Usage: java boggle.GameLogTool stats [directory]
+ *        java boggle.GameLogTool words [directory] [count]
+ */
+public class GameLogTool {
+
+    private static final int DEFAULT_WORDS = 20;
+
+    public static void main(String[] args) throws IOException {
+        String command = args.length > 0 ? args[0] : "stats";
+        String directory = args.length > 1 ? args[1] : System.getProperty(GameLog.DIRECTORY_PROPERTY);
+        if (directory == null) {
+            System.err.println("No log directory given, and " + GameLog.DIRECTORY_PROPERTY + " is not set");
+            System.exit(1);
+        }
+        GameLogReader reader = new GameLogReader(new File(directory));
+
+        switch (command) {
+            case "stats":
+                printStats(reader);
+                break;
+            case "words":
+                printWords(reader, args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_WORDS);
+                break;
+            default:
+                System.err.println("Unknown command " + command);
+                System.err.println("Usage: java boggle.GameLogTool stats | words [directory] [count]");
+                System.exit(1);
+        }
+    }
+
+    /*
+     * This method reads the whole log and prints how many of each kind of record it holds
+     */
+    private static void printStats(GameLogReader reader) throws IOException {
+        long[] counts = new long[GameLog.GAME_ENDED + 1];
+        long[] accepted = new long[1];
+        long start = System.nanoTime();
+        reader.replay(new GameLogReader.Visitor() {
+            @Override
+            public void gameStarted(long game, long time, char[][] board, boolean wrap) {
+                counts[GameLog.GAME_STARTED]++;
+            }
+
+            @Override
+            public void tileSelected(long game, long time, int cell) {
+                counts[GameLog.TILE_SELECTED]++;
+            }
+
+            @Override
+            public void tileDeselected(long game, long time, int cell) {
+                counts[GameLog.TILE_DESELECTED]++;
+            }
+
+            @Override
+            public void tilesCleared(long game, long time) {
+                counts[GameLog.TILES_CLEARED]++;
+            }
+
+            @Override
+            public void wordChecked(long game, long time, String word, int score) {
+                counts[GameLog.WORD_CHECKED]++;
+                if (score > 0) {
+                    accepted[0]++;
+                }
+            }
+
+            @Override
+            public void gameEnded(long game, long time, int score) {
+                counts[GameLog.GAME_ENDED]++;
+            }
+        });
+        long time = System.nanoTime() - start;
+
+        System.out.println("Files:              " + reader.getFiles().size());
+        System.out.printf("Size:               %.2f MB%n", reader.getBytes() / 1e6);
+        System.out.println("Records:            " + reader.getRecordCount());
+        System.out.println("Games started:      " + counts[GameLog.GAME_STARTED]);
+        System.out.println("Games ended:        " + counts[GameLog.GAME_ENDED]);
+        System.out.println("Tiles selected:     " + counts[GameLog.TILE_SELECTED]);
+        System.out.println("Tiles deselected:   " + counts[GameLog.TILE_DESELECTED]);
+        System.out.println("Selections cleared: " + counts[GameLog.TILES_CLEARED]);
+        System.out.println("Words checked:      " + counts[GameLog.WORD_CHECKED]);
+        System.out.println("Words accepted:     " + accepted[0]);
+        System.out.printf("Read time:          %.1f ms (%.1f million records/s)%n", time / 1e6,
+                reader.getRecordCount() * 1e3 / Math.max(time, 1));
+    }
+
+    /*
+     * This method solves the board of every game and prints the words that were on the most boards with how often
+     * they were found. Boards that come up again, or turned or mirrored, are solved once through a SolutionCache.
+     */
+    private static void printWords(GameLogReader reader, int count) throws IOException {
+        Dictionary.getInstance();
+        SolutionCache cache = new SolutionCache(SolutionCache.DEFAULT_SIZE);
+        //for each word, the boards it was on and the games it was found in
+        HashMap<String, long[]> counts = new HashMap<>();
+        IOException[] error = new IOException[1];
+        reader.replay(new GameLogReader.Visitor() {
+            @Override
+            public void gameStarted(long game, long time, char[][] board, boolean wrap) {
+                try {
+                    for (String word : cache.solve(board, wrap, null).getWords()) {
+                        counts.computeIfAbsent(word, w -> new long[2])[0]++;
+                    }
+                }
+                catch (IOException e) {
+                    error[0] = e;
+                }
+                catch (IllegalArgumentException e) {
+                    //a board that is not A-Z has no words to find
+                }
+            }
+
+            @Override
+            public void wordChecked(long game, long time, String word, int score) {
+                //the game only gives points for a word the first time a player finds it
+                if (score > 0) {
+                    counts.computeIfAbsent(word, w -> new long[2])[1]++;
+                }
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+
+        ArrayList<Map.Entry<String, long[]>> words = new ArrayList<>(counts.entrySet());
+        words.sort((a, b) -> a.getValue()[0] != b.getValue()[0] ? Long.compare(b.getValue()[0], a.getValue()[0])
+                : a.getKey().compareTo(b.getKey()));
+        System.out.println("Games: " + reader.getGameCount() + ", distinct words on their boards: " + counts.size());
+        System.out.println("Word              On boards      Found   Hit rate");
+        for (int n = 0; n < Math.min(count, words.size()); n++) {
+            long[] word = words.get(n).getValue();
+            System.out.printf("%-16s %10d %10d %9.1f%%%n", words.get(n).getKey(), word[0], word[1],
+                    word[0] == 0 ? 0.0 : 100.0 * word[1] / word[0]);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package boggle;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This is the LargeBoardSolver class. It finds the words on very large boards, such as generated grids of 1000x1000
+ * letters used for word statistics, where the BoggleSolver would spend more memory describing the board than
+ * searching it. Nothing here grows with the size of the board:
+ *
+ *   - the search is a loop over an explicit stack with one entry per letter of the current path, so it never needs
+ *     more room than the longest word in the dictionary
+ *   - a cell is checked against the cells already on the path instead of a visited bit for every cell of the board
+ *   - the neighbors of a cell are worked out from its row and column as they are needed instead of being stored for
+ *     every cell in a BoardTopology
+ *   - the starting cells are taken one after another, row by row
+ *
+ * Apart from the words it finds, which can be handed to a WordSink instead of being kept, a solve only uses the
+ * search state of its thread, which is sized by the dictionary, and its stack. It reads the letters straight from the
+ * board it was given. The words, their order and their paths are the same as the BoggleSolver finds with its plain
+ * search.
+ */
+public final class LargeBoardSolver {
+
+    //the eight steps to a neighbor, in the same order as BoardTopology lists neighbors
+    private static final int[] ROW_STEPS = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] COLUMN_STEPS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    private final char[][] _board;
+    private final int _rows;
+    private final int _columns;
+    private final boolean _wrap;
+    private final CompactTrie _trie;
+    private final int _dictionaries;
+    private final boolean _skipOtherLists;
+
+    //the explicit stack, one entry for each letter of the current path: the row and column of the cell, the trie node
+    //the path has reached and which of the eight neighbors of the cell to try next. The cell numbers and letters of
+    //the path are kept in the SearchState.
+    private final int[] _rowStack;
+    private final int[] _columnStack;
+    private final int[] _nodeStack;
+    private final byte[] _stepStack;
+
+    private ArrayList<String> _wordsFound;
+    private Solution _solution;
+    private int _totalScore;
+    private int _wordCount;
+    private long _solveTime;
+    private long _nodesVisited;
+    private long _nodesPruned;
+
+    /*
+     * Constructor for LargeBoardSolver. It finds and keeps every word of the first word list on the board.
+     */
+    public LargeBoardSolver(char[][] board, boolean wrap) throws IOException {
+        this(board, wrap, Dictionary.DEFAULT_MASK);
+        this.solve(true, null);
+    }
+
+    /*
+     * This constructor only checks the board and sets up the stack, leaving the search to the caller
+     */
+    private LargeBoardSolver(char[][] board, boolean wrap, int dictionaries) throws IOException {
+        Dictionary dictionary = Dictionary.getInstance();
+        if (dictionaries == 0 || (dictionaries & ~dictionary.getAllMask()) != 0) {
+            throw new IllegalArgumentException("Word list mask " + dictionaries + " does not match the lists "
+                    + dictionary.getNames());
+        }
+        if (board.length == 0 || board[0].length == 0) {
+            throw new IllegalArgumentException("A board needs at least one row and one column");
+        }
+        //cells are numbered row by row in an int
+        if ((long) board.length * board[0].length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A board can have at most " + Integer.MAX_VALUE + " cells");
+        }
+        for (char[] row : board) {
+            if (row.length != board[0].length) {
+                throw new IllegalArgumentException("Every row of the board must be the same length");
+            }
+            for (char letter : row) {
+                if (letter < 'A' || letter > 'Z') {
+                    throw new IllegalArgumentException("Board contains a character that is not A-Z: " + letter);
+                }
+            }
+        }
+        _board = board;
+        _rows = board.length;
+        _columns = board[0].length;
+        _wrap = wrap;
+        _trie = dictionary.getTrie();
+        _dictionaries = dictionaries;
+        _skipOtherLists = dictionaries != dictionary.getAllMask();
+        _rowStack = new int[_trie.getMaxWordLength()];
+        _columnStack = new int[_trie.getMaxWordLength()];
+        _nodeStack = new int[_trie.getMaxWordLength()];
+        _stepStack = new byte[_trie.getMaxWordLength()];
+    }
+
+    /*
+     * This method returns the points a player would get for finding every word on the board, without keeping any of
+     * the words
+     */
+    public static int totalScore(char[][] board, boolean wrap) throws IOException {
+        LargeBoardSolver solver = new LargeBoardSolver(board, wrap, Dictionary.DEFAULT_MASK);
+        solver.solve(false, null);
+        return solver._totalScore;
+    }
+
+    /*
+     * This method hands each word of the word lists in the mask to the sink as it is found, without keeping any of
+     * them. It returns false if the sink stopped the search before every word was found.
+     */
+    public static boolean streamWords(char[][] board, boolean wrap, int dictionaries, WordSink sink)
+            throws IOException {
+        return new LargeBoardSolver(board, wrap, dictionaries).solve(false, sink);
+    }
+
+    /*
+     * This method searches the board from every starting cell in turn. It returns false if the sink stopped it.
+     */
+    private boolean solve(boolean keepWords, WordSink sink) {
+        long start = System.nanoTime();
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        SearchState state = SearchState.get(_trie);
+        //the path is checked instead of a visited bitmap, so the state does not need room for the cells
+        state.begin(0, keepWords);
+        state._sink = sink;
+
+        for (int row = 0; row < _rows && !state._stopped; row++) {
+            for (int column = 0; column < _columns && !state._stopped; column++) {
+                int node = this.follow(CompactTrie.ROOT, _board[row][column] - 'A');
+                if (node != CompactTrie.NO_NODE) {
+                    this.search(state, row, column, node);
+                }
+                else {
+                    state._nodesPruned++;
+                }
+            }
+        }
+
+        _totalScore = state._score;
+        _wordCount = state._wordCount;
+        _nodesVisited = state._nodesVisited;
+        _nodesPruned = state._nodesPruned;
+        if (keepWords) {
+            _wordsFound = state._wordsFound;
+            _solution = new Solution(state._wordsFound, state._pathsFound, _columns);
+        }
+        _solveTime = System.nanoTime() - start;
+        this.record(event);
+        return !state._stopped;
+    }
+
+    /*
+     * This method ends the event of a finished solve and counts the solve in the metrics, the same as the BoggleSolver
+     * does
+     */
+    private void record(SolveEvent event) {
+        event.end();
+        SolverMetrics.getInstance().recordSolve(_rows, _columns, _wrap, _solveTime, _nodesVisited, _nodesPruned,
+                _wordCount);
+        if (event.shouldCommit()) {
+            event.rows = _rows;
+            event.columns = _columns;
+            event.wrapped = _wrap;
+            event.parallel = false;
+            event.wordCount = _wordCount;
+            event.totalScore = _totalScore;
+            event.nodesVisited = _nodesVisited;
+            event.nodesPruned = _nodesPruned;
+            event.commit();
+        }
+    }
+
+    /*
+     * This method finds every word that starts at a cell. It walks the same paths in the same order as the recursive
+     * search of the BoggleSolver, but keeps the path on its own stack so the depth of the call stack never changes.
+     */
+    private void search(SearchState state, int firstRow, int firstColumn, int firstNode) {
+        char[][] board = _board;
+        int[] path = state._path;
+        int depth = 0;
+        if (!this.push(state, firstRow, firstColumn, firstNode, depth++)) {
+            return;
+        }
+
+        while (depth > 0) {
+            int top = depth - 1;
+            int node = _nodeStack[top];
+            //the letters the node has children for are read once for all eight neighbors
+            int letters = _trie.childMask(node);
+            int step = _stepStack[top];
+            int child = CompactTrie.NO_NODE;
+            int row = 0;
+            int column = 0;
+
+            while (step < ROW_STEPS.length) {
+                row = _rowStack[top] + ROW_STEPS[step];
+                column = _columnStack[top] + COLUMN_STEPS[step];
+                step++;
+                if (_wrap) {
+                    row = Math.floorMod(row, _rows);
+                    column = Math.floorMod(column, _columns);
+                }
+                else if (row < 0 || row >= _rows || column < 0 || column >= _columns) {
+                    continue;
+                }
+                //the trie is asked first since most neighbors end there, and only a letter that continues a word has
+                //to be looked for on the path
+                int letter = board[row][column] - 'A';
+                if ((letters & (1 << letter)) == 0 || (child = this.follow(node, letter)) == CompactTrie.NO_NODE) {
+                    state._nodesPruned++;
+                    continue;
+                }
+                if (!onPath(path, depth, row * _columns + column)) {
+                    break;
+                }
+                child = CompactTrie.NO_NODE;
+            }
+            _stepStack[top] = (byte) step;
+
+            if (child == CompactTrie.NO_NODE) {
+                //every neighbor has been tried, so the letter comes off the path
+                depth--;
+            }
+            else if (!this.push(state, row, column, child, depth++)) {
+                return;
+            }
+        }
+    }
+
+    /*
+     * This method adds a cell to the path and takes the word it spells if that is new. It returns false if the sink
+     * asked the search to stop.
+     */
+    private boolean push(SearchState state, int row, int column, int node, int depth) {
+        state._nodesVisited++;
+        state._path[depth] = row * _columns + column;
+        state._word[depth] = _board[row][column];
+        _rowStack[depth] = row;
+        _columnStack[depth] = column;
+        _nodeStack[depth] = node;
+        _stepStack[depth] = 0;
+        int length = depth + 1;
+
+        if ((_trie.dictionaries(node) & _dictionaries) != 0 && state._foundMark[node] != state._solveNumber) {
+            state._foundMark[node] = state._solveNumber;
+            state._score += Scoring.score(length);
+            state._wordCount++;
+            if (state._keepWords) {
+                state._wordsFound.add(new String(state._word, 0, length));
+                state._pathsFound.add(Arrays.copyOf(state._path, length));
+            }
+            else if (state._sink != null
+                    && !state._sink.accept(new String(state._word, 0, length), Arrays.copyOf(state._path, length))) {
+                state._stopped = true;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * This method checks if a cell is already one of the first length cells of the path. Paths are never longer than
+     * a word, so this is only a few comparisons.
+     */
+    private static boolean onPath(int[] path, int length, int cell) {
+        for (int n = 0; n < length; n++) {
+            if (path[n] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * This method returns the child of a node for a letter, or NO_NODE if there is none or if every word below it is
+     * only in word lists the board is not being solved with
+     */
+    private int follow(int node, int letter) {
+        int child = _trie.child(node, letter);
+        if (_skipOtherLists && child != CompactTrie.NO_NODE
+                && (_trie.reachableDictionaries(child) & _dictionaries) == 0) {
+            return CompactTrie.NO_NODE;
+        }
+        return child;
+    }
+
+    /*
+     * This method checks if a word can be found on the board
+     */
+    public boolean validWord(String word) {
+        return _solution.contains(word);
+    }
+
+    /*
+     * This method returns the list of all words found on the board
+     */
+    public ArrayList<String> getWords() {
+        return _wordsFound;
+    }
+
+    /*
+     * This method returns the solution for the board, which also has the path and score of every word
+     */
+    public Solution getSolution() {
+        return _solution;
+    }
+
+    /*
+     * Getter method for the points of every word on the board
+     */
+    public int getTotalScore() {
+        return _totalScore;
+    }
+
+    /*
+     * Getter method for the number of words on the board
+     */
+    public int getWordCount() {
+        return _wordCount;
+    }
+
+    /*
+     * This method returns how long searching the board took in nanoseconds
+     */
+    public long getSolveTime() {
+        return _solveTime;
+    }
+
+    /*
+     * Getter method for the number of trie nodes the search stepped into
+     */
+    public long getNodesVisited() {
+        return _nodesVisited;
+    }
+
+    /*
+     * Getter method for the number of neighbors the search did not follow because no word continues through them
+     */
+    public long getNodesPruned() {
+        return _nodesPruned;
+    }
+}
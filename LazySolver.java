@@ -0,0 +1,259 @@
+package boggle;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This is the LazySolver class. It answers questions about a board without finding every word on it first. Checking a
+ * word looks it up in the trie and then searches the board only for that word's letters, which takes microseconds, so
+ * a game can start taking words as soon as the dictionary is loaded. The full list of words is only worked out the
+ * first time getSolution or getWords is called, for example when the results are shown at the end of a game, and is
+ * kept from then on.
+ *
+ * A word is valid here exactly when a full solve would find it, with the same points. The cells given for a word are
+ * the first way of tracing it in the order the BoggleSolver walks the board, trying neighbors in the order of their
+ * numbers on boards it searches as a BitBoard, so they are the cells a BoggleSolver of the same board keeps. A
+ * solution taken from a SolutionCache may have traced a turned copy of the board, so findPath always traces the word
+ * itself and gives the same cells before and after the board is solved. The class is thread safe.
+ */
+public final class LazySolver {
+
+    private final char[][] _board;
+    private final BoardTopology _topology;
+    private final CompactTrie _trie;
+    private final int _dictionaries;
+    private final SolutionCache _cache;
+    private final ForkJoinPool _pool;
+    //the board flattened into cells numbered row by row, with the letter of each cell as 0 to 25
+    private final int[] _letters;
+    //whether neighbors are tried in the order of their numbers, the way the solver searches a BitBoard
+    private final boolean _bitOrder;
+
+    private volatile Solution _solution;
+    private long _solveTime;
+
+    /*
+     * Constructor for a LazySolver that uses the first word list and solves the board on the shared pool when it has
+     * to
+     */
+    public LazySolver(char[][] board) throws IOException {
+        this(board, BoardTopology.of(board, false), null, BoggleSolver.sharedPool(), Dictionary.DEFAULT_MASK);
+    }
+
+    /*
+     * This constructor takes the full solve from a cache when the board, or a turn of it, has been solved before
+     */
+    public LazySolver(char[][] board, SolutionCache cache, ForkJoinPool pool) throws IOException {
+        this(board, BoardTopology.of(board, false), cache, pool, Dictionary.DEFAULT_MASK);
+    }
+
+    /*
+     * This constructor only takes words from the word lists in the mask, on a board with the given topology
+     */
+    public LazySolver(char[][] board, BoardTopology topology, ForkJoinPool pool, int dictionaries)
+            throws IOException {
+        this(board, topology, null, pool, dictionaries);
+    }
+
+    private LazySolver(char[][] board, BoardTopology topology, SolutionCache cache, ForkJoinPool pool,
+                       int dictionaries) throws IOException {
+        Dictionary dictionary = Dictionary.getInstance();
+        if (dictionaries == 0 || (dictionaries & ~dictionary.getAllMask()) != 0) {
+            throw new IllegalArgumentException("Word list mask " + dictionaries + " does not match the lists "
+                    + dictionary.getNames());
+        }
+        if (board.length != topology.getRows()) {
+            throw new IllegalArgumentException("Board does not have the rows of its topology");
+        }
+        _letters = new int[topology.getCellCount()];
+        for (int i = 0; i < board.length; i++) {
+            if (board[i].length != topology.getColumns()) {
+                throw new IllegalArgumentException("Board does not have the columns of its topology");
+            }
+            for (int j = 0; j < board[i].length; j++) {
+                int letter = board[i][j] - 'A';
+                if (letter < 0 || letter >= Constants.ALPHABET_SIZE) {
+                    throw new IllegalArgumentException("Board contains a character that is not A-Z: " + board[i][j]);
+                }
+                _letters[topology.cell(i, j)] = letter;
+            }
+        }
+        _board = board;
+        _topology = topology;
+        _trie = dictionary.getTrie();
+        _dictionaries = dictionaries;
+        _bitOrder = BoggleSolver.searchesBits(topology);
+        //the cache only holds boards solved with the first word list
+        _cache = dictionaries == Dictionary.DEFAULT_MASK ? cache : null;
+        _pool = pool;
+    }
+
+    /*
+     * This method checks if a word is in the dictionary and can be found on the board
+     */
+    public boolean validWord(String word) {
+        return this.findPath(word) != null;
+    }
+
+    /*
+     * This method returns how many points the word is worth on this board, which is 0 if it is not on the board
+     */
+    public int getScore(String word) {
+        return this.validWord(word) ? Scoring.score(word.length()) : 0;
+    }
+
+    /*
+     * This method returns the cells a word can be traced on, or null if it is not a word or not on the board. The
+     * word is always traced on the board, even once it has been solved, so the same word always gets the same cells.
+     */
+    public int[] findPath(String word) {
+        if (word.isEmpty() || word.length() > _letters.length || !_trie.contains(word, _dictionaries)) {
+            return null;
+        }
+
+        int[] path = new int[word.length()];
+        int first = word.charAt(0) - 'A';
+        for (int cell = 0; cell < _letters.length; cell++) {
+            if (_letters[cell] == first) {
+                path[0] = cell;
+                if (this.trace(word, path, 1)) {
+                    return path;
+                }
+            }
+        }
+        return null;
+    }
+
+    /*
+     * This method extends a path that spells the first length letters of the word, trying the neighbors of its last
+     * cell in the order the solver would, and returns true once the whole word has been traced
+     */
+    private boolean trace(String word, int[] path, int length) {
+        if (length == word.length()) {
+            return true;
+        }
+        int letter = word.charAt(length) - 'A';
+        if (_bitOrder) {
+            long neighbors = _topology.neighborMask(path[length - 1]);
+            while (neighbors != 0) {
+                if (this.traceFrom(word, path, length, letter, Long.numberOfTrailingZeros(neighbors))) {
+                    return true;
+                }
+                neighbors &= neighbors - 1;
+            }
+            return false;
+        }
+        for (int neighbor : _topology.neighbors(path[length - 1])) {
+            if (this.traceFrom(word, path, length, letter, neighbor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * This method tries the next letter of the word on one neighbor of the end of the path
+     */
+    private boolean traceFrom(String word, int[] path, int length, int letter, int neighbor) {
+        if (_letters[neighbor] != letter || onPath(path, length, neighbor)) {
+            return false;
+        }
+        path[length] = neighbor;
+        return this.trace(word, path, length + 1);
+    }
+
+    /*
+     * This method checks a batch of words and returns the ones that are on the board, with their cells and points, in
+     * the order they were first given
+     */
+    public Solution findWords(Collection<String> words) {
+        ArrayList<String> onBoard = new ArrayList<>();
+        ArrayList<int[]> paths = new ArrayList<>();
+        HashSet<String> seen = new HashSet<>();
+        for (String word : words) {
+            int[] path;
+            if (seen.add(word) && (path = this.findPath(word)) != null) {
+                onBoard.add(word);
+                paths.add(path);
+            }
+        }
+        return new Solution(onBoard, paths, _topology.getColumns());
+    }
+
+    private static boolean onPath(int[] path, int length, int cell) {
+        for (int n = 0; n < length; n++) {
+            if (path[n] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * This method returns every word on the board, solving the board the first time it is called
+     */
+    public Solution getSolution() {
+        Solution solution = _solution;
+        if (solution == null) {
+            synchronized (this) {
+                solution = _solution;
+                if (solution == null) {
+                    long start = System.nanoTime();
+                    try {
+                        if (_cache != null) {
+                            solution = _cache.solve(_board, _topology.isWrapped(), _pool);
+                        }
+                        else {
+                            solution = new BoggleSolver(_board, _topology, _pool, _dictionaries).getSolution();
+                        }
+                    }
+                    catch (IOException e) {
+                        //the dictionary was already loaded by the constructor, so this cannot happen
+                        throw new IllegalStateException(e);
+                    }
+                    _solveTime = System.nanoTime() - start;
+                    _solution = solution;
+                }
+            }
+        }
+        return solution;
+    }
+
+    /*
+     * This method returns the list of every word on the board, solving the board the first time it is called
+     */
+    public ArrayList<String> getWords() {
+        return new ArrayList<>(this.getSolution().getWords());
+    }
+
+    /*
+     * This method tells whether the full list of words has been worked out yet
+     */
+    public boolean isSolved() {
+        return _solution != null;
+    }
+
+    /*
+     * This method returns how long the full solve took in nanoseconds, or 0 if the board has not been solved
+     */
+    public synchronized long getSolveTime() {
+        return _solveTime;
+    }
+
+    /*
+     * Getter method for the dictionary trie words are checked against
+     */
+    public CompactTrie getTrie() {
+        return _trie;
+    }
+
+    /*
+     * Getter method for the mask of word lists words are taken from
+     */
+    public int getDictionaries() {
+        return _dictionaries;
+    }
+}
@@ -6,8 +6,6 @@ import javafx.scene.control.Button;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
 
-import java.io.IOException;
-
 /**
  * this is the paneorganizer class which sets up graphically the pane that is used my App class to display the stage.
  * It also contains the event handlers that trigger from button presses, key inputs, or the timeline.
@@ -17,7 +15,7 @@ public class PaneOrganizer{
     private BorderPane _root;
     private Boggle _boggle;
 
-    public PaneOrganizer(int size) throws IOException {
+    public PaneOrganizer(int size) {
         //all the initial variables and objects are instanciated here
         _root = new BorderPane();
         _boggle = new Boggle(size);
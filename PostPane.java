@@ -1,54 +1,218 @@
 package boggle;
 
+import javafx.animation.AnimationTimer;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.geometry.Insets;
 import javafx.scene.Scene;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 
 /**
  * This is the PostPane class. This class is responsible for the window that comes up after the Boggle game is over.
  * It displays all of the words the user found and all of the possible words.
+ *
+ * The words are shown in ListViews, which only make cells for the rows that fit in the window and reuse them while
+ * scrolling, so a board with thousands of words opens as fast as a small one. Both lists sit on top of a filtered and
+ * sorted view of their words, so changing the sort order or the minimum length or score only changes which words the
+ * cells show. The window opens right away and the list of all words is filled a chunk at a time on each frame.
  */
 public class PostPane {
 
+    private static final String ORDER_FOUND = "Order found";
+    private static final String ALPHABETICAL = "A to Z";
+    private static final String LONGEST = "Longest first";
+    private static final String MOST_POINTS = "Most points";
+    //words added to the list of all words on each frame while it fills
+    private static final int FILL_CHUNK = 500;
+
+    private final HashSet<String> _userFoundWords;
+    private final ArrayList<FilteredList<String>> _filtered;
+    private final ArrayList<SortedList<String>> _sorted;
+    private final ChoiceBox<String> _sortBox;
+    private final ChoiceBox<Integer> _lengthBox;
+    private final ChoiceBox<Integer> _pointsBox;
+
+    /*
+     * Constructor for PostPane. It uses the list of all words, list of words the user found, and how long the solver
+     * took in nanoseconds
+     */
+    public PostPane(Collection<String> userFoundWords, Collection<String> words, long solveTime) {
+        this(userFoundWords, words, String.format("(solved in %.1f ms)", solveTime / 1e6));
+    }
+
     /*
-     * Constructor for PostPane. It uses the list of all words and list of words the user found
+     * This constructor shows a status line under the heading of all possible words instead of the solve time, for
+     * example when the board could not be solved
      */
-    public PostPane(ArrayList userFoundWords, ArrayList words) {
+    public PostPane(Collection<String> userFoundWords, Collection<String> words, String status) {
         Stage newStage = new Stage();
         newStage.setTitle("Boggle Results");
+        _userFoundWords = new HashSet<>(userFoundWords);
+        _filtered = new ArrayList<>();
+        _sorted = new ArrayList<>();
 
-        //This vbox holds all of the labels with the words the player found
-        VBox userWords = new VBox(1);
-        userWords.getChildren().add(new Label("Words you found:"));
-        //loops through all strings in the arraylist and makes a new label for it
-        for (Object userFoundWord : userFoundWords) {
-            userWords.getChildren().add(new Label((String) userFoundWord));
-        }
+        //controls for sorting and filtering both lists
+        _sortBox = new ChoiceBox<>(FXCollections.observableArrayList(ORDER_FOUND, ALPHABETICAL, LONGEST, MOST_POINTS));
+        _sortBox.setValue(ORDER_FOUND);
+        _lengthBox = new ChoiceBox<>(FXCollections.observableArrayList(1, 3, 4, 5, 6, 7, 8));
+        _lengthBox.setValue(1);
+        _pointsBox = new ChoiceBox<>(FXCollections.observableArrayList(1, 2, 3, 5, 11));
+        _pointsBox.setValue(1);
+        _sortBox.setOnAction(e -> this.updateView());
+        _lengthBox.setOnAction(e -> this.updateView());
+        _pointsBox.setOnAction(e -> this.updateView());
+        HBox controls = new HBox(Constants.VBOX_SPACING, _sortBox, new Label("Min length"), _lengthBox,
+                new Label("Min points"), _pointsBox);
+        controls.setPadding(new Insets(Constants.VBOX_SPACING));
 
-        VBox allWords = new VBox(1);
-        allWords.getChildren().add(new Label("All possible words:"));
-        //loops through all possible words in this boggle game and makes a label for each
-        for (Object word : words) {
-            allWords.getChildren().add(new Label((String) word));
-        }
+        //the words the player found are few, so they are all added at once
+        ObservableList<String> userWords = FXCollections.observableArrayList(userFoundWords);
+        VBox userPane = this.newColumn("Words you found: " + userFoundWords.size(), userWords);
+
+        //all possible words start empty and are filled in once the window is showing
+        ObservableList<String> allWords = FXCollections.observableArrayList();
+        Label allLabel = new Label();
+        VBox allPane = this.newColumn(allLabel, allWords);
+        allPane.getChildren().add(1, new Label(status));
+
+        //HBox holds both lists next to eachother
+        HBox lists = new HBox(Constants.HBOX_SPACING, userPane, allPane);
+        lists.setPadding(new Insets(0, Constants.VBOX_SPACING, Constants.VBOX_SPACING, Constants.VBOX_SPACING));
+        HBox.setHgrow(userPane, Priority.ALWAYS);
+        HBox.setHgrow(allPane, Priority.ALWAYS);
+
+        BorderPane root = new BorderPane(lists);
+        root.setTop(controls);
+        root.setPrefSize(Constants.POSTPANE_WIDTH, Constants.POSTPANE_HEIGHT);
 
-        //ScroolPane is the main pane of the PostPane class. It holds the other panes while allowing scrolling for long lists
-        ScrollPane scrollpane = new ScrollPane();
-        scrollpane.setPrefSize(Constants.POSTPANE_WIDTH, Constants.POSTPANE_HEIGHT);
-        //HBox holds both Vboxes next to eachother
-        HBox pane = new HBox(Constants.HBOX_SPACING);
-        pane.getChildren().addAll(userWords, allWords);
-        //scrollpane contents are set to the hbox
-        scrollpane.setContent(pane);
-
-        //creates a new scene using the scroll pane
-        Scene scene = new Scene(scrollpane);
+        //creates a new scene using the border pane
+        Scene scene = new Scene(root);
         newStage.setScene(scene);
         newStage.show(); //opens new scene in a new window
+
+        this.fill(allWords, new ArrayList<>(words), allLabel, newStage);
+    }
+
+    /*
+     * This method makes a column with a heading and a list view of the words
+     */
+    private VBox newColumn(String heading, ObservableList<String> words) {
+        return this.newColumn(new Label(heading), words);
+    }
+
+    /*
+     * This method makes a column with a heading label and a list view of the words. The list shows the words through
+     * a filtered and sorted view so they can be rearranged without making new cells.
+     */
+    private VBox newColumn(Label heading, ObservableList<String> words) {
+        FilteredList<String> filtered = new FilteredList<>(words);
+        SortedList<String> sorted = new SortedList<>(filtered);
+        _filtered.add(filtered);
+        _sorted.add(sorted);
+
+        ListView<String> list = new ListView<>(sorted);
+        //every row is the same height, which lets the list skip measuring rows it never shows
+        list.setFixedCellSize(Constants.RESULT_ROW_HEIGHT);
+        list.setCellFactory(view -> new WordCell());
+        VBox.setVgrow(list, Priority.ALWAYS);
+
+        VBox column = new VBox(1, heading, list);
+        this.updateView();
+        return column;
+    }
+
+    /*
+     * This method adds the words to the list a chunk at a time, one chunk per frame, until they are all there
+     */
+    private void fill(ObservableList<String> target, List<String> words, Label heading, Stage stage) {
+        heading.setText("All possible words: 0 of " + words.size());
+        AnimationTimer timer = new AnimationTimer() {
+            private int _next = 0;
+
+            @Override
+            public void handle(long now) {
+                int end = Math.min(words.size(), _next + FILL_CHUNK);
+                target.addAll(words.subList(_next, end));
+                _next = end;
+                if (_next == words.size()) {
+                    heading.setText("All possible words: " + words.size());
+                    this.stop();
+                }
+                else {
+                    heading.setText("All possible words: " + _next + " of " + words.size());
+                }
+            }
+        };
+        //nothing is filled once the window is closed
+        stage.setOnHidden(e -> timer.stop());
+        timer.start();
+    }
+
+    /*
+     * This method applies the chosen sort order and filters to both lists
+     */
+    private void updateView() {
+        int minLength = _lengthBox.getValue();
+        int minPoints = _pointsBox.getValue();
+        Comparator<String> order;
+        switch (_sortBox.getValue()) {
+            case ALPHABETICAL:
+                order = Comparator.naturalOrder();
+                break;
+            case LONGEST:
+                order = Comparator.comparingInt(String::length).reversed().thenComparing(Comparator.naturalOrder());
+                break;
+            case MOST_POINTS:
+                order = Comparator.comparingInt((String word) -> Scoring.score(word.length())).reversed()
+                        .thenComparing(Comparator.naturalOrder());
+                break;
+            default:
+                //no comparator keeps the order the words were found in
+                order = null;
+                break;
+        }
+
+        for (FilteredList<String> filtered : _filtered) {
+            filtered.setPredicate(word -> word.length() >= minLength && Scoring.score(word.length()) >= minPoints);
+        }
+        for (SortedList<String> sorted : _sorted) {
+            sorted.setComparator(order);
+        }
+    }
+
+    /*
+     * This is the private inner class for one row of a list. It shows a word with its points, in bold if the player
+     * found it.
+     */
+    private class WordCell extends ListCell<String> {
+
+        @Override
+        protected void updateItem(String word, boolean empty) {
+            super.updateItem(word, empty);
+            if (empty || word == null) {
+                this.setText(null);
+                this.setStyle(null);
+            }
+            else {
+                this.setText(word + "  (" + Scoring.score(word.length()) + ")");
+                this.setStyle(_userFoundWords.contains(word) ? "-fx-font-weight: bold;" : null);
+            }
+        }
     }
 }
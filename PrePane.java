@@ -7,7 +7,6 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import java.io.IOException;
 
 /**
  * This is the PrePane class. PrePane is repsonsible for the scene/stage where the user selects the size of the
@@ -57,11 +56,7 @@ public class PrePane {
         //event handler for the button, it sets the size variable then calls the startGame method and also closes the currentStage
         button.setOnAction(e -> {
             _size = gameSize;
-            try {
-                this.startGame();
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            }
+            this.startGame();
             //closes the window where user selects game size
             _mainStage.close();
         });
@@ -79,7 +74,7 @@ public class PrePane {
     /*
      * This method acts like the start method in App class. It creates and sets the stage/scene for the boggle game
      */
-    private void startGame() throws IOException {
+    private void startGame() {
         Stage stage = new Stage();
         PaneOrganizer paneOrganizer = new PaneOrganizer(_size); //Pane organizer is created based on user selected size
         stage.setScene(new Scene(paneOrganizer.getRoot(), Constants.SCENE_WIDTH + (Constants.RECTANGLE_SIZE+Constants.STROKE_SIZE)*(_size-3), Constants.SCENE_HEIGHT + (Constants.RECTANGLE_SIZE+Constants.STROKE_SIZE)*(_size-3)));
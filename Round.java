@@ -0,0 +1,276 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * This is the Round class. It runs one round of a game where many players share the same board, such as a round on
+ * the BoggleServer with hundreds of players. Players join the round and then claim the words they find, from as many
+ * threads as they like, and when the round is finished the words more than one player found are crossed out, as in
+ * the board game.
+ *
+ * Claiming a word never takes a lock. Every word of the solution has a claim slot in an AtomicLongArray, found by the
+ * word's position in the solution, that counts the players who found it and remembers the first. The slots are spread
+ * a cache line apart so players claiming different words do not slow each other down. Each player keeps the words
+ * they found as bits in an AtomicLongArray and their own running score, which only that player's threads touch.
+ * Joining and finishing are rare and are synchronized.
+ */
+public final class Round {
+
+    /*
+     * What happened to a claimed word
+     */
+    public enum Claim {
+        //the word is not on the board
+        INVALID,
+        //the player already claimed the word
+        REPEAT,
+        //no other player has claimed the word yet
+        FIRST,
+        //another player claimed the word first, so unless scoring counts every word it will be crossed out
+        SHARED,
+        //the round is over
+        CLOSED
+    }
+
+    //each claim slot is a long on its own 64 byte cache line: the number of players who found the word in the high
+    //half and the id of the first plus one in the low half
+    private static final int SLOT_STRIDE = 8;
+    private static final long FINDER = 1L << Integer.SIZE;
+    private static final long FIRST_MASK = FINDER - 1;
+    private static final LongBinaryOperator OR = (a, b) -> a | b;
+
+    private final Solution _solution;
+    private final AtomicLongArray _claims;
+    //players by id, which is the order they joined in
+    private final CopyOnWriteArrayList<Player> _players;
+    private final HashSet<String> _names;
+    private volatile boolean _closed;
+    private List<Player> _standings;
+
+    /*
+     * Constructor for Round. The solution is shared and is not changed.
+     */
+    public Round(Solution solution) {
+        _solution = solution;
+        _claims = new AtomicLongArray(Math.max(solution.size(), 1) * SLOT_STRIDE);
+        _players = new CopyOnWriteArrayList<>();
+        _names = new HashSet<>();
+    }
+
+    /*
+     * This method adds a player to the round. Names must be unique within a round.
+     */
+    public synchronized Player join(String name) {
+        if (_closed) {
+            throw new IllegalStateException("The round is over");
+        }
+        if (!_names.add(name)) {
+            throw new IllegalArgumentException("There is already a player called " + name);
+        }
+        Player player = new Player(this, _players.size(), name, _solution.size());
+        _players.add(player);
+        return player;
+    }
+
+    /*
+     * This method claims a word for a player. It can be called from any number of threads at once, including several
+     * for the same player.
+     */
+    public Claim claim(Player player, String word) {
+        if (player._round != this) {
+            throw new IllegalArgumentException(player.getName() + " is not playing in this round");
+        }
+        //finish waits for claims that got past the closed check, so no word is counted after the final scores
+        player._claiming.incrementAndGet();
+        try {
+            if (_closed) {
+                return Claim.CLOSED;
+            }
+            int n = _solution.indexOf(word);
+            if (n < 0) {
+                return Claim.INVALID;
+            }
+            long bit = 1L << n;
+            if ((player._found.getAndAccumulate(n >>> 6, bit, OR) & bit) != 0) {
+                return Claim.REPEAT;
+            }
+            player._score.addAndGet(_solution.getScore(n));
+            player._wordCount.incrementAndGet();
+
+            int slot = n * SLOT_STRIDE;
+            if (_claims.compareAndSet(slot, 0, FINDER | (player._id + 1))) {
+                return Claim.FIRST;
+            }
+            _claims.getAndAdd(slot, FINDER);
+            return Claim.SHARED;
+        }
+        finally {
+            player._claiming.decrementAndGet();
+        }
+    }
+
+    /*
+     * This method ends the round and returns the players from the highest final score to the lowest, where a word
+     * only scores for a player if nobody else found it. Claims made after this get CLOSED. Calling it again returns
+     * the same standings.
+     */
+    public synchronized List<Player> finish() {
+        if (_standings != null) {
+            return _standings;
+        }
+        _closed = true;
+        for (Player player : _players) {
+            while (player._claiming.get() != 0) {
+                Thread.onSpinWait();
+            }
+        }
+
+        for (Player player : _players) {
+            int score = 0;
+            for (int n = player.nextWord(0); n >= 0; n = player.nextWord(n + 1)) {
+                if ((_claims.get(n * SLOT_STRIDE) >>> Integer.SIZE) == 1) {
+                    score += _solution.getScore(n);
+                }
+            }
+            player._finalScore = score;
+        }
+        ArrayList<Player> standings = new ArrayList<>(_players);
+        standings.sort(Comparator.comparingInt(Player::getFinalScore).reversed().thenComparing(Player::getName));
+        _standings = Collections.unmodifiableList(standings);
+        return _standings;
+    }
+
+    /*
+     * This method returns how many players have found a word so far
+     */
+    public int getFinderCount(String word) {
+        int n = _solution.indexOf(word);
+        return n < 0 ? 0 : (int) (_claims.get(n * SLOT_STRIDE) >>> Integer.SIZE);
+    }
+
+    /*
+     * This method returns the player who found a word first, or null if nobody has
+     */
+    public Player getFirstFinder(String word) {
+        int n = _solution.indexOf(word);
+        int first = n < 0 ? 0 : (int) (_claims.get(n * SLOT_STRIDE) & FIRST_MASK);
+        return first == 0 ? null : _players.get(first - 1);
+    }
+
+    /*
+     * Getter method for the players in the order they joined
+     */
+    public List<Player> getPlayers() {
+        return Collections.unmodifiableList(_players);
+    }
+
+    /*
+     * Getter method for the solution of the board being played
+     */
+    public Solution getSolution() {
+        return _solution;
+    }
+
+    /*
+     * This method tells whether the round has been finished
+     */
+    public boolean isClosed() {
+        return _closed;
+    }
+
+    /*
+     * This is the Player class. It holds what one player has done in a round.
+     */
+    public static final class Player {
+
+        private final Round _round;
+        private final int _id;
+        private final String _name;
+        //bit n is set once the player has claimed the nth word of the solution
+        private final AtomicLongArray _found;
+        private final AtomicInteger _score;
+        private final AtomicInteger _wordCount;
+        //claims for this player that are still running
+        private final AtomicInteger _claiming;
+        private volatile int _finalScore;
+
+        private Player(Round round, int id, String name, int words) {
+            _round = round;
+            _id = id;
+            _name = name;
+            _found = new AtomicLongArray((words + Long.SIZE - 1) / Long.SIZE);
+            _score = new AtomicInteger();
+            _wordCount = new AtomicInteger();
+            _claiming = new AtomicInteger();
+            _finalScore = -1;
+        }
+
+        /*
+         * This method returns the position of the first word at or after n that the player claimed, or -1
+         */
+        private int nextWord(int n) {
+            while (n < _found.length() * Long.SIZE) {
+                long bits = _found.get(n >>> 6) & (-1L << n);
+                if (bits != 0) {
+                    return (n & ~63) + Long.numberOfTrailingZeros(bits);
+                }
+                n = (n & ~63) + Long.SIZE;
+            }
+            return -1;
+        }
+
+        /*
+         * This method returns the words the player has claimed, in the order of the solution
+         */
+        public List<String> getWords() {
+            ArrayList<String> words = new ArrayList<>(_wordCount.get());
+            for (int n = this.nextWord(0); n >= 0; n = this.nextWord(n + 1)) {
+                words.add(_round._solution.getWords().get(n));
+            }
+            return words;
+        }
+
+        /*
+         * Getter method for the id of the player, which is the order they joined the round in
+         */
+        public int getId() {
+            return _id;
+        }
+
+        /*
+         * Getter method for the name of the player
+         */
+        public String getName() {
+            return _name;
+        }
+
+        /*
+         * Getter method for the points of every word the player claimed, before anything is crossed out
+         */
+        public int getScore() {
+            return _score.get();
+        }
+
+        /*
+         * Getter method for the number of words the player claimed
+         */
+        public int getWordCount() {
+            return _wordCount.get();
+        }
+
+        /*
+         * Getter method for the points of the words only this player found, or -1 before the round is finished
+         */
+        public int getFinalScore() {
+            return _finalScore;
+        }
+    }
+}
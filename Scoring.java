@@ -0,0 +1,34 @@
+package boggle;
+
+/**
+ * This is the Scoring class. It holds the official boggle points table so that the game and the solver score words
+ * the same way.
+ */
+public final class Scoring {
+
+    private Scoring() {
+    }
+
+    /*
+     * This method returns how many points a word of the given length is worth
+     */
+    public static int score(int length) {
+        switch (length) {
+            case 0:
+                return 0;
+            case 1:
+            case 2:
+            case 3:
+            case 4:
+                return 1;
+            case 5:
+                return 2;
+            case 6:
+                return 3;
+            case 7:
+                return 5;
+            default:
+                return 11;
+        }
+    }
+}
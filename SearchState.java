@@ -0,0 +1,94 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This is the SearchState class. It holds the scratch arrays the solver needs while it searches a board: the visited
+ * bits, the letters and cells of the current path, and a mark for every trie node whose word has already been found.
+ * These arrays are sized by the dictionary rather than by the board, so one set is kept per thread and reused by
+ * every solve on that thread instead of being allocated for each board. The lists of found words are new for every
+ * solve because they are handed on to the caller. A search that only wants the best words, or hands every word to a
+ * WordSink, keeps those here as well.
+ */
+final class SearchState {
+
+    private static final ThreadLocal<SearchState> STATES = new ThreadLocal<>();
+
+    final CompactTrie _trie;
+    final char[] _word;
+    final int[] _path;
+    //holds the solve number for each trie node whose word has already been found, so repeats are skipped
+    final int[] _foundMark;
+    //one bit per cell, set while that cell is part of the current path
+    long[] _visited;
+    int _solveNumber;
+    //the words and paths found since the last call to begin, the points they add up to and the longest of them
+    boolean _keepWords;
+    ArrayList<String> _wordsFound;
+    ArrayList<int[]> _pathsFound;
+    int _score;
+    int _wordCount;
+    int _longestWord;
+    //the best words when only some are wanted, or the sink that takes each word as it is found and whether it has
+    //asked the search to stop
+    BestWords _best;
+    WordSink _sink;
+    boolean _stopped;
+    //how many trie nodes the search stepped into, and how many neighbors it skipped because no word continued there
+    long _nodesVisited;
+    long _nodesPruned;
+
+    /*
+     * Constructor for SearchState
+     */
+    private SearchState(CompactTrie trie) {
+        _trie = trie;
+        _word = new char[trie.getMaxWordLength()];
+        _path = new int[trie.getMaxWordLength()];
+        _foundMark = new int[trie.getNodeCount()];
+        _visited = new long[1];
+        _solveNumber = 0;
+    }
+
+    /*
+     * This method returns the state for the current thread, creating it the first time or if the trie has changed
+     */
+    static SearchState get(CompactTrie trie) {
+        SearchState state = STATES.get();
+        if (state == null || state._trie != trie) {
+            state = new SearchState(trie);
+            STATES.set(state);
+        }
+        return state;
+    }
+
+    /*
+     * This method gets the state ready for a new solve of a board with the given number of cells. Starting a new solve
+     * number means every found mark from the last solve is out of date without having to clear the array. When words
+     * are not kept only the score is added up, so nothing is allocated while searching.
+     */
+    void begin(int cells, boolean keepWords) {
+        int words = (cells + Long.SIZE - 1) / Long.SIZE;
+        if (_visited.length < words) {
+            _visited = new long[words];
+        }
+        _solveNumber++;
+        if (_solveNumber == 0) {
+            //the counter wrapped around, so old marks could match again and have to be cleared
+            Arrays.fill(_foundMark, 0);
+            _solveNumber = 1;
+        }
+        _keepWords = keepWords;
+        _wordsFound = keepWords ? new ArrayList<>() : null;
+        _pathsFound = keepWords ? new ArrayList<>() : null;
+        _score = 0;
+        _wordCount = 0;
+        _longestWord = 0;
+        _best = null;
+        _sink = null;
+        _stopped = false;
+        _nodesVisited = 0;
+        _nodesPruned = 0;
+    }
+}
@@ -0,0 +1,143 @@
+package boggle;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This is the ServerLoad class. It puts load on a running BoggleServer the way a crowd of bots would: each client
+ * asks for a new board, solves the same letters with their words, and then checks every one of those words against
+ * the board id, over and over until the time is up. At the end it prints how many requests were made per second and
+ * the latency percentiles. It only uses the HttpClient that comes with the JDK.
+ *
+ * Usage: java boggle.ServerLoad [--url http://127.0.0.1:8080] [--clients n] [--seconds n] [--size n]
+ */
+public class ServerLoad {
+
+    private static final Pattern ID = Pattern.compile("\"id\":\"([^\"]+)\"");
+    private static final Pattern BOARD = Pattern.compile("\"board\":\"([^\"]+)\"");
+    private static final Pattern WORDS = Pattern.compile("\"words\":\\[([^\\]]*)\\]");
+    //words checked against each board
+    private static final int CHECKS = 20;
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://127.0.0.1:" + BoggleServer.DEFAULT_PORT;
+        int clients = 16;
+        long seconds = 10;
+        int size = BoardGenerator.DICE_BOARD_SIZE;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--url":
+                    url = args[++i];
+                    break;
+                case "--clients":
+                    clients = Integer.parseInt(args[++i]);
+                    break;
+                case "--seconds":
+                    seconds = Long.parseLong(args[++i]);
+                    break;
+                case "--size":
+                    size = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        HttpClient http = HttpClient.newHttpClient();
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        ArrayList<Future<long[]>> results = new ArrayList<>();
+        String base = url;
+        int boardSize = size;
+
+        long start = System.nanoTime();
+        for (int n = 0; n < clients; n++) {
+            results.add(workers.submit(() -> run(http, base, boardSize, end)));
+        }
+        ArrayList<long[]> latencies = new ArrayList<>();
+        for (Future<long[]> result : results) {
+            latencies.add(result.get());
+        }
+        long time = System.nanoTime() - start;
+        workers.shutdown();
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%d requests from %d clients in %.1f s (%.0f requests/s)%n", all.length, clients, time / 1e9,
+                all.length / (time / 1e9));
+        if (all.length > 0) {
+            System.out.printf("Latency p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    all[all.length / 2] / 1e6, all[(int) (all.length * 0.9)] / 1e6, all[(int) (all.length * 0.99)] / 1e6,
+                    all[all.length - 1] / 1e6);
+        }
+    }
+
+    /*
+     * This method runs one client until the end time and returns the latency of every request it made
+     */
+    private static long[] run(HttpClient http, String base, int size, long end) throws Exception {
+        long[] latencies = new long[1024];
+        int count = 0;
+
+        while (System.nanoTime() < end) {
+            String[] urls = new String[CHECKS + 2];
+            urls[0] = base + "/board?size=" + size;
+            String created = null;
+            String id = null;
+            String[] words = new String[0];
+
+            for (int n = 0; n < urls.length && urls[n] != null; n++) {
+                long start = System.nanoTime();
+                String body = get(http, urls[n]);
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+
+                if (n == 0) {
+                    created = find(BOARD, body);
+                    id = find(ID, body);
+                    urls[1] = base + "/solve?words=true&board=" + created;
+                }
+                else if (n == 1) {
+                    String list = find(WORDS, body).replace("\"", "");
+                    words = list.isEmpty() ? new String[0] : list.split(",");
+                    for (int w = 0; w < CHECKS && w < words.length; w++) {
+                        urls[w + 2] = base + "/check?id=" + id + "&word=" + words[w];
+                    }
+                }
+                else if (!body.contains("\"valid\":true")) {
+                    throw new IllegalStateException("Word was not valid on board " + created + ": " + body);
+                }
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static String get(HttpClient http, String url) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(url + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static String find(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected response " + body);
+        }
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,135 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This is the Solution class. It holds every word a BoggleSolver found on one board along with the cells each word
+ * was found on and how many points it is worth. Words are looked up through a hash index so checking a word takes
+ * constant time no matter how many words the board has. Cells are numbered row by row, so the cell at row i and
+ * column j of the board is i * columns + j.
+ */
+public final class Solution {
+
+    private final List<String> _words;
+    private final HashMap<String, Integer> _index;
+    private final int[][] _paths;
+    private final int[] _scores;
+    private final int _totalScore;
+    private final int _columns;
+
+    /*
+     * Constructor for Solution. The words are kept in the order they were found and paths.get(n) holds the cells of
+     * the nth word.
+     */
+    Solution(ArrayList<String> words, ArrayList<int[]> paths, int columns) {
+        _words = Collections.unmodifiableList(words);
+        _index = new HashMap<>(words.size() * 2);
+        _paths = paths.toArray(new int[0][]);
+        _scores = new int[words.size()];
+        _columns = columns;
+
+        int total = 0;
+        for (int n = 0; n < words.size(); n++) {
+            _index.put(words.get(n), n);
+            _scores[n] = Scoring.score(words.get(n).length());
+            total = total + _scores[n];
+        }
+        _totalScore = total;
+    }
+
+    /*
+     * Constructor for a Solution with the same words as another but found on different cells, used for a board that
+     * is a rotation or mirror image of one already solved. The word list and index are shared, not copied.
+     */
+    private Solution(Solution other, int[][] paths, int columns) {
+        _words = other._words;
+        _index = other._index;
+        _paths = paths;
+        _scores = other._scores;
+        _totalScore = other._totalScore;
+        _columns = columns;
+    }
+
+    /*
+     * This method returns a solution with the same words whose nth word was found on paths[n]
+     */
+    Solution withPaths(int[][] paths, int columns) {
+        return new Solution(this, paths, columns);
+    }
+
+    /*
+     * This method checks if the word can be found on the board
+     */
+    public boolean contains(String word) {
+        return _index.containsKey(word);
+    }
+
+    /*
+     * This method returns the position of the word in the list of words, or -1 if it is not on the board
+     */
+    public int indexOf(String word) {
+        Integer n = _index.get(word);
+        return n == null ? -1 : n;
+    }
+
+    /*
+     * This method returns how many points the word is worth on this board, which is 0 if it is not on the board
+     */
+    public int getScore(String word) {
+        int n = this.indexOf(word);
+        return n < 0 ? 0 : _scores[n];
+    }
+
+    /*
+     * This method returns the points for the nth word
+     */
+    public int getScore(int n) {
+        return _scores[n];
+    }
+
+    /*
+     * This method returns the cells the nth word was found on, in the order the letters are read
+     */
+    public int[] getPath(int n) {
+        return _paths[n].clone();
+    }
+
+    /*
+     * This method returns the cells the word was found on, or null if it is not on the board
+     */
+    public int[] getPath(String word) {
+        int n = this.indexOf(word);
+        return n < 0 ? null : this.getPath(n);
+    }
+
+    /*
+     * Getter method for the list of all words in the order they were found
+     */
+    public List<String> getWords() {
+        return _words;
+    }
+
+    /*
+     * Getter method for the number of words on the board
+     */
+    public int size() {
+        return _words.size();
+    }
+
+    /*
+     * Getter method for the points a player would get for finding every word on the board
+     */
+    public int getTotalScore() {
+        return _totalScore;
+    }
+
+    /*
+     * Getter method for the number of columns, used to turn a cell number back into a row and column
+     */
+    public int getColumns() {
+        return _columns;
+    }
+}
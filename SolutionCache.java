@@ -0,0 +1,226 @@
+package boggle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This is the SolutionCache class. It remembers solved boards so that a board that comes up again, such as a daily
+ * challenge or a repeat in a batch, does not have to be searched a second time. Boards are looked up by their
+ * BoardKey, so a board that has only been rotated or mirrored finds the solution of the original. The words are the
+ * same for every turn of a board, and the cells of each word are mapped back onto the board that was asked for.
+ * A solution from the cache has the same words and scores as a fresh solve, though the words may be in another order.
+ * Every path is a valid tracing of its word on the board that was asked for, but for a turned or mirrored board it
+ * can be a different tracing than a fresh solve would have found.
+ *
+ * The cache holds a fixed number of boards and drops the one used least recently when it is full. It can also keep
+ * every board it solves in a SolutionCacheFile on disk, which is checked before solving a board that is not in memory.
+ * Hits, misses and evictions are counted.
+ *
+ * The cache shared by the game is set up with the boggle.cache.size and boggle.cache.file system properties.
+ */
+public final class SolutionCache {
+
+    public static final String SIZE_PROPERTY = "boggle.cache.size";
+    public static final String FILE_PROPERTY = "boggle.cache.file";
+    public static final int DEFAULT_SIZE = 256;
+
+    private static SolutionCache _shared;
+
+    private final LinkedHashMap<BoardKey, Solution> _entries;
+    private final SolutionCacheFile _file;
+    private long _hits;
+    private long _diskHits;
+    private long _misses;
+    private long _evictions;
+
+    /*
+     * Constructor for a SolutionCache that only keeps boards in memory
+     */
+    public SolutionCache(int maxEntries) {
+        this(maxEntries, (SolutionCacheFile) null);
+    }
+
+    /*
+     * Constructor for a SolutionCache that also keeps every board it solves in a file. The file is tied to the
+     * dictionary, and is started over if it was made with a different word list.
+     */
+    public SolutionCache(int maxEntries, File file) throws IOException {
+        this(maxEntries, new SolutionCacheFile(file, Dictionary.getInstance().getChecksum()));
+    }
+
+    private SolutionCache(int maxEntries, SolutionCacheFile file) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("A cache needs room for at least one board");
+        }
+        _file = file;
+        //an access ordered map keeps the board used least recently at its head
+        _entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BoardKey, Solution> eldest) {
+                if (this.size() > maxEntries) {
+                    _evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /*
+     * This method returns the cache shared by the game, making it the first time it is asked for. If the file named
+     * by boggle.cache.file cannot be opened the cache only keeps boards in memory.
+     */
+    public static synchronized SolutionCache shared() {
+        if (_shared == null) {
+            int size = Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE);
+            String file = System.getProperty(FILE_PROPERTY);
+            if (file != null) {
+                try {
+                    _shared = new SolutionCache(size, new File(file));
+                }
+                catch (IOException e) {
+                    System.err.println("Could not open solution cache " + file + ": " + e.getMessage());
+                }
+            }
+            if (_shared == null) {
+                _shared = new SolutionCache(size);
+            }
+        }
+        return _shared;
+    }
+
+    /*
+     * This method returns the solution of a board, from the cache if it or any turn of it has been solved before and
+     * otherwise by solving it on the given pool (or the calling thread if the pool is null).
+     */
+    public Solution solve(char[][] board, boolean wrap, ForkJoinPool pool) throws IOException {
+        //checks that every row of the board is the same length
+        BoardTopology.of(board, wrap);
+        BoardKey key = BoardKey.of(board, wrap);
+        Solution solution = this.find(key);
+
+        if (solution == null) {
+            //the board is solved outside the lock so other threads can keep using the cache meanwhile
+            char[][] chosen = key.board();
+            solution = new BoggleSolver(chosen, BoardTopology.of(chosen, wrap), pool).getSolution();
+            synchronized (this) {
+                _entries.put(key, solution);
+                if (_file != null) {
+                    _file.write(key, solution);
+                }
+            }
+        }
+        return this.mapBack(key, solution);
+    }
+
+    /*
+     * This method returns the solution of a board if the cache has it, or null if it would have to be solved
+     */
+    public Solution get(char[][] board, boolean wrap) {
+        //checks that every row of the board is the same length
+        BoardTopology.of(board, wrap);
+        BoardKey key = BoardKey.of(board, wrap);
+        Solution solution = this.find(key);
+        return solution == null ? null : this.mapBack(key, solution);
+    }
+
+    /*
+     * This method looks for the solution of a key in memory and then on disk, counting the hit or miss
+     */
+    private synchronized Solution find(BoardKey key) {
+        Solution solution = _entries.get(key);
+        if (solution != null) {
+            _hits++;
+            return solution;
+        }
+        if (_file != null) {
+            solution = _file.read(key);
+            if (solution != null) {
+                _diskHits++;
+                _entries.put(key, solution);
+                return solution;
+            }
+        }
+        _misses++;
+        return null;
+    }
+
+    /*
+     * This method turns a solution of the key's board into one for the board that was asked for
+     */
+    private Solution mapBack(BoardKey key, Solution solution) {
+        if (key.isIdentity()) {
+            return solution;
+        }
+        int[][] paths = new int[solution.size()][];
+        for (int n = 0; n < paths.length; n++) {
+            paths[n] = solution.getPath(n);
+            for (int m = 0; m < paths[n].length; m++) {
+                paths[n][m] = key.sourceCell(paths[n][m]);
+            }
+        }
+        return solution.withPaths(paths, key.getSourceColumns());
+    }
+
+    /*
+     * This method writes out anything the disk tier still holds in memory and closes its file
+     */
+    public synchronized void close() throws IOException {
+        if (_file != null) {
+            _file.close();
+        }
+    }
+
+    /*
+     * Getter method for the number of boards found in memory
+     */
+    public synchronized long getHits() {
+        return _hits;
+    }
+
+    /*
+     * Getter method for the number of boards found in the disk tier
+     */
+    public synchronized long getDiskHits() {
+        return _diskHits;
+    }
+
+    /*
+     * Getter method for the number of boards that had to be solved
+     */
+    public synchronized long getMisses() {
+        return _misses;
+    }
+
+    /*
+     * Getter method for the number of boards dropped from memory to make room
+     */
+    public synchronized long getEvictions() {
+        return _evictions;
+    }
+
+    /*
+     * This method returns the share of lookups that did not need a solve, from 0 to 1
+     */
+    public synchronized double getHitRate() {
+        long lookups = _hits + _diskHits + _misses;
+        return lookups == 0 ? 0 : (double) (_hits + _diskHits) / lookups;
+    }
+
+    /*
+     * Getter method for the number of boards held in memory
+     */
+    public synchronized int size() {
+        return _entries.size();
+    }
+
+    /*
+     * Getter method for the number of boards in the disk tier, which is 0 without one
+     */
+    public synchronized int getDiskSize() {
+        return _file == null ? 0 : _file.size();
+    }
+}
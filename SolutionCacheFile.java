@@ -0,0 +1,187 @@
+package boggle;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * This is the SolutionCacheFile class. It is the disk tier of a SolutionCache: solved boards are added to the end of
+ * a memory-mapped file, so they are still there the next time the program runs, and reading one back is a lookup in
+ * an index and a walk over the mapped bytes. Only the cells of each word are stored, since the letters can be read
+ * off the board in its key. The file keeps the checksum of the word list it was made with and is started over if the
+ * dictionary has changed.
+ *
+ * Layout (little endian):
+ *   header: magic, version, checksum of the word list, end of the last complete record
+ *   record: key length, key bytes, word count, then for each word its length as a byte and its cells as shorts
+ *
+ * The end offset in the header is only moved after a record has been written in full, so a record cut short by a
+ * crash is never read. The class is not thread safe; SolutionCache only calls it while holding its lock. Only one
+ * process should use a file at a time.
+ */
+final class SolutionCacheFile implements Closeable {
+
+    static final int MAGIC = 0x42474C43; //"BGLC"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int END_OFFSET = 3 * Integer.BYTES;
+    private static final int INITIAL_SIZE = 1 << 20;
+    //a cell is stored as an unsigned short and a word length as an unsigned byte
+    private static final int MAX_CELLS = 1 << 16;
+    private static final int MAX_WORD_LENGTH = 255;
+
+    private final FileChannel _channel;
+    private final HashMap<BoardKey, Integer> _offsets;
+    private MappedByteBuffer _buffer;
+    private int _end;
+
+    /*
+     * Constructor for SolutionCacheFile. It opens or creates the file and reads the index of the boards already in it.
+     */
+    SolutionCacheFile(File file, int checksum) throws IOException {
+        _channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        _offsets = new HashMap<>();
+        long size = _channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(file + " is too large to be a solution cache");
+        }
+        this.map((int) Math.max(size, INITIAL_SIZE));
+
+        boolean valid = size >= HEADER_BYTES && _buffer.getInt(0) == MAGIC && _buffer.getInt(4) == VERSION
+                && _buffer.getInt(8) == checksum && _buffer.getInt(END_OFFSET) >= HEADER_BYTES
+                && _buffer.getInt(END_OFFSET) <= size;
+        if (valid) {
+            _end = _buffer.getInt(END_OFFSET);
+            this.readIndex();
+        }
+        else {
+            //a new file, or one made for another dictionary or version, is started over
+            _buffer.putInt(0, MAGIC);
+            _buffer.putInt(4, VERSION);
+            _buffer.putInt(8, checksum);
+            _end = HEADER_BYTES;
+            _buffer.putInt(END_OFFSET, _end);
+        }
+    }
+
+    /*
+     * This method maps the first size bytes of the file, making the file longer if needed
+     */
+    private void map(int size) throws IOException {
+        _buffer = _channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        _buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /*
+     * This method walks the records once to find where each board starts
+     */
+    private void readIndex() {
+        int offset = HEADER_BYTES;
+        while (offset < _end) {
+            int start = offset;
+            byte[] key = new byte[_buffer.getInt(offset)];
+            _buffer.get(offset + Integer.BYTES, key);
+            offset += Integer.BYTES + key.length;
+            int words = _buffer.getInt(offset);
+            offset += Integer.BYTES;
+            for (int n = 0; n < words; n++) {
+                offset += 1 + (_buffer.get(offset) & 0xFF) * Short.BYTES;
+            }
+            _offsets.put(BoardKey.fromBytes(key), start);
+        }
+    }
+
+    /*
+     * This method reads the solution of a board, as found on the board of its key, or returns null if the file does
+     * not have it
+     */
+    Solution read(BoardKey key) {
+        Integer start = _offsets.get(key);
+        if (start == null) {
+            return null;
+        }
+        int offset = start + Integer.BYTES + _buffer.getInt(start);
+        int count = _buffer.getInt(offset);
+        offset += Integer.BYTES;
+
+        ArrayList<String> words = new ArrayList<>(count);
+        ArrayList<int[]> paths = new ArrayList<>(count);
+        char[] letters = new char[MAX_WORD_LENGTH];
+        for (int n = 0; n < count; n++) {
+            int length = _buffer.get(offset++) & 0xFF;
+            int[] path = new int[length];
+            for (int m = 0; m < length; m++) {
+                path[m] = _buffer.getShort(offset) & 0xFFFF;
+                letters[m] = key.letter(path[m]);
+                offset += Short.BYTES;
+            }
+            words.add(new String(letters, 0, length));
+            paths.add(path);
+        }
+        return new Solution(words, paths, key.getColumns());
+    }
+
+    /*
+     * This method adds the solution of the board of a key to the end of the file. Boards too big for the record
+     * layout are skipped.
+     */
+    void write(BoardKey key, Solution solution) throws IOException {
+        if (_offsets.containsKey(key) || key.getRows() * key.getColumns() > MAX_CELLS) {
+            return;
+        }
+        long needed = Integer.BYTES + key.bytes().length + Integer.BYTES;
+        for (int n = 0; n < solution.size(); n++) {
+            int length = solution.getWords().get(n).length();
+            if (length > MAX_WORD_LENGTH) {
+                return;
+            }
+            needed += 1 + length * Short.BYTES;
+        }
+        if (_end + needed > Integer.MAX_VALUE) {
+            return;
+        }
+        if (_end + needed > _buffer.capacity()) {
+            this.map((int) Math.min(Integer.MAX_VALUE, Math.max(_buffer.capacity() * 2L, _end + needed)));
+        }
+
+        int offset = _end;
+        _buffer.putInt(offset, key.bytes().length);
+        _buffer.put(offset + Integer.BYTES, key.bytes());
+        offset += Integer.BYTES + key.bytes().length;
+        _buffer.putInt(offset, solution.size());
+        offset += Integer.BYTES;
+        for (int n = 0; n < solution.size(); n++) {
+            int[] path = solution.getPath(n);
+            _buffer.put(offset++, (byte) path.length);
+            for (int cell : path) {
+                _buffer.putShort(offset, (short) cell);
+                offset += Short.BYTES;
+            }
+        }
+
+        //the record is only part of the file once the end offset says so
+        _offsets.put(key, _end);
+        _end = offset;
+        _buffer.putInt(END_OFFSET, _end);
+    }
+
+    /*
+     * Getter method for the number of boards in the file
+     */
+    int size() {
+        return _offsets.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        _buffer.force();
+        _channel.close();
+    }
+}
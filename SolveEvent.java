@@ -0,0 +1,42 @@
+package boggle;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This is the SolveEvent class. It is a Java Flight Recorder event covering the search of one board by a BoggleSolver
+ * or a LargeBoardSolver, from setting up its cells to having the finished list of words.
+ */
+@Name("boggle.Solve")
+@Label("Board Solve")
+@Category("Boggle")
+@Description("Searching one board for every word")
+final class SolveEvent extends Event {
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int columns;
+
+    @Label("Wrapped")
+    boolean wrapped;
+
+    @Label("Parallel")
+    boolean parallel;
+
+    @Label("Words Found")
+    int wordCount;
+
+    @Label("Total Score")
+    int totalScore;
+
+    @Label("Nodes Visited")
+    long nodesVisited;
+
+    @Label("Nodes Pruned")
+    long nodesPruned;
+}
@@ -0,0 +1,224 @@
+package boggle;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is the SolverMetrics class. It keeps running totals of what the dictionary and the solvers have done in this
+ * JVM: how long the dictionary took to load and how big its trie is, and for the solves, how long they took, how many
+ * trie nodes the search stepped into, how many neighbors it cut off because no word continued through them, and how
+ * many words were found on each size of board.
+ *
+ * There is one instance, registered with the platform MBean server as boggle:type=SolverMetrics the first time it is
+ * used. The counters are LongAdders, so the solver threads never wait on each other to add to them.
+ */
+public final class SolverMetrics implements SolverMetricsMBean {
+
+    public static final String OBJECT_NAME = "boggle:type=SolverMetrics";
+
+    private static final SolverMetrics INSTANCE = register(new SolverMetrics());
+
+    private volatile long _dictionaryLoadTime;
+    private volatile int _dictionaryWordCount;
+    private volatile boolean _dictionaryFromImage;
+    private volatile int _trieNodeCount;
+    private volatile long _trieBytes;
+    private final LongAdder _solveCount;
+    private final LongAdder _solveTime;
+    private final LongAccumulator _maxSolveTime;
+    private final LongAdder _nodesVisited;
+    private final LongAdder _nodesPruned;
+    private final LongAdder _wordsFound;
+    //the counts for each shape of board, keyed by its rows, columns and whether it wraps, so that boards too large to
+    //have a BoardTopology can be counted too
+    private final ConcurrentHashMap<Long, BoardCounts> _boards;
+
+    /*
+     * Constructor for SolverMetrics
+     */
+    private SolverMetrics() {
+        _solveCount = new LongAdder();
+        _solveTime = new LongAdder();
+        _maxSolveTime = new LongAccumulator(Math::max, 0);
+        _nodesVisited = new LongAdder();
+        _nodesPruned = new LongAdder();
+        _wordsFound = new LongAdder();
+        _boards = new ConcurrentHashMap<>();
+    }
+
+    /*
+     * This method returns the metrics for this JVM
+     */
+    public static SolverMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /*
+     * This method registers the metrics with JMX. Metrics are only there to be looked at, so a failure here never
+     * stops the game from running.
+     */
+    private static SolverMetrics register(SolverMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        }
+        catch (JMException | SecurityException e) {
+            System.err.println("Could not register " + OBJECT_NAME + ": " + e);
+        }
+        return metrics;
+    }
+
+    /*
+     * This method records the dictionary once it has been loaded
+     */
+    void recordDictionary(Dictionary dictionary) {
+        _dictionaryLoadTime = dictionary.getBuildTime();
+        _dictionaryWordCount = dictionary.getWordCount();
+        _dictionaryFromImage = dictionary.isFromImage();
+        _trieNodeCount = dictionary.getTrie().getNodeCount();
+        _trieBytes = dictionary.getTrie().getMemoryFootprint();
+    }
+
+    /*
+     * This method records one finished solve
+     */
+    void recordSolve(BoardTopology topology, long time, long nodesVisited, long nodesPruned, int words) {
+        this.recordSolve(topology.getRows(), topology.getColumns(), topology.isWrapped(), time, nodesVisited,
+                nodesPruned, words);
+    }
+
+    /*
+     * This method records one finished solve of a board with the given shape
+     */
+    void recordSolve(int rows, int columns, boolean wrap, long time, long nodesVisited, long nodesPruned, int words) {
+        _solveCount.increment();
+        _solveTime.add(time);
+        _maxSolveTime.accumulate(time);
+        _nodesVisited.add(nodesVisited);
+        _nodesPruned.add(nodesPruned);
+        _wordsFound.add(words);
+
+        Long shape = ((long) rows << 32) | ((long) columns << 1) | (wrap ? 1 : 0);
+        BoardCounts counts = _boards.get(shape);
+        if (counts == null) {
+            counts = _boards.computeIfAbsent(shape, s -> new BoardCounts(rows, columns, wrap));
+        }
+        counts._boards.increment();
+        counts._words.add(words);
+    }
+
+    @Override
+    public long getDictionaryLoadTime() {
+        return _dictionaryLoadTime;
+    }
+
+    @Override
+    public int getDictionaryWordCount() {
+        return _dictionaryWordCount;
+    }
+
+    @Override
+    public boolean isDictionaryFromImage() {
+        return _dictionaryFromImage;
+    }
+
+    @Override
+    public int getTrieNodeCount() {
+        return _trieNodeCount;
+    }
+
+    @Override
+    public long getTrieBytes() {
+        return _trieBytes;
+    }
+
+    @Override
+    public long getSolveCount() {
+        return _solveCount.sum();
+    }
+
+    @Override
+    public long getTotalSolveTime() {
+        return _solveTime.sum();
+    }
+
+    @Override
+    public long getAverageSolveTime() {
+        long solves = _solveCount.sum();
+        return solves == 0 ? 0 : _solveTime.sum() / solves;
+    }
+
+    @Override
+    public long getMaxSolveTime() {
+        return _maxSolveTime.get();
+    }
+
+    @Override
+    public long getNodesVisited() {
+        return _nodesVisited.sum();
+    }
+
+    @Override
+    public long getNodesPruned() {
+        return _nodesPruned.sum();
+    }
+
+    @Override
+    public long getWordsFound() {
+        return _wordsFound.sum();
+    }
+
+    /*
+     * This method returns one line for every shape of board solved so far, with the boards solved and the words found
+     * on them
+     */
+    @Override
+    public String[] getWordsPerBoardSize() {
+        ArrayList<String> lines = new ArrayList<>();
+        for (BoardCounts counts : _boards.values()) {
+            long boards = counts._boards.sum();
+            long words = counts._words.sum();
+            lines.add(String.format("%dx%d%s: %d boards, %d words, %.1f words per board", counts._rows,
+                    counts._columns, counts._wrap ? " torus" : "", boards, words,
+                    boards == 0 ? 0.0 : (double) words / boards));
+        }
+        lines.sort(null);
+        return lines.toArray(new String[0]);
+    }
+
+    /*
+     * This method sets the solve counters back to zero. The dictionary numbers are kept since it is only loaded once.
+     */
+    @Override
+    public void reset() {
+        _solveCount.reset();
+        _solveTime.reset();
+        _maxSolveTime.reset();
+        _nodesVisited.reset();
+        _nodesPruned.reset();
+        _wordsFound.reset();
+        _boards.clear();
+    }
+
+    /*
+     * This is the private inner class holding the counts for one shape of board
+     */
+    private static class BoardCounts {
+
+        private final int _rows;
+        private final int _columns;
+        private final boolean _wrap;
+        private final LongAdder _boards = new LongAdder();
+        private final LongAdder _words = new LongAdder();
+
+        private BoardCounts(int rows, int columns, boolean wrap) {
+            _rows = rows;
+            _columns = columns;
+            _wrap = wrap;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package boggle;
+
+/**
+ * This is the SolverMetricsMBean interface. It lists what the SolverMetrics class shows through JMX, so the numbers
+ * can be watched from JConsole or any other JMX client while games or batch runs are going. Times are in nanoseconds.
+ */
+public interface SolverMetricsMBean {
+
+    long getDictionaryLoadTime();
+
+    int getDictionaryWordCount();
+
+    boolean isDictionaryFromImage();
+
+    int getTrieNodeCount();
+
+    long getTrieBytes();
+
+    long getSolveCount();
+
+    long getTotalSolveTime();
+
+    long getAverageSolveTime();
+
+    long getMaxSolveTime();
+
+    long getNodesVisited();
+
+    long getNodesPruned();
+
+    long getWordsFound();
+
+    String[] getWordsPerBoardSize();
+
+    void reset();
+}
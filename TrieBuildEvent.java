@@ -0,0 +1,26 @@
+package boggle;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This is the TrieBuildEvent class. It is a Java Flight Recorder event covering the step where a TrieBuilder packs
+ * the words it was given into a CompactTrie.
+ */
+@Name("boggle.TrieBuild")
+@Label("Trie Build")
+@Category("Boggle")
+@Description("Packing the added words into a compact trie")
+final class TrieBuildEvent extends Event {
+
+    @Label("Trie Nodes")
+    int nodeCount;
+
+    @Label("Trie Size")
+    @DataAmount
+    long trieBytes;
+}
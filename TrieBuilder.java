@@ -0,0 +1,186 @@
+package boggle;
+
+import java.util.Arrays;
+
+/**
+ * This is the TrieBuilder class. It is used by the Dictionary to collect words before they are packed into a
+ * CompactTrie. Instead of an array of 26 children for every node it keeps a first child and a next sibling for each
+ * node in parallel int arrays, so even the full dictionary only takes a few megabytes while it is being built. Words
+ * from several lists can be added to the same builder, and each node remembers which lists its word came from.
+ */
+final class TrieBuilder {
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final int NONE = -1;
+
+    private int[] _firstChild;
+    private int[] _nextSibling;
+    private byte[] _letter;
+    //bit n is set if the word ending at the node is in word list n
+    private byte[] _dictionaries;
+    private int _nodeCount;
+    private int _maxLength;
+
+    /*
+     * Constructor for TrieBuilder. It starts with only the root node.
+     */
+    TrieBuilder() {
+        _firstChild = new int[INITIAL_CAPACITY];
+        _nextSibling = new int[INITIAL_CAPACITY];
+        _letter = new byte[INITIAL_CAPACITY];
+        _dictionaries = new byte[INITIAL_CAPACITY];
+        _nodeCount = 0;
+        this.newNode(0);
+    }
+
+    /*
+     * This method adds a word to the first word list. Words may only contain the letters A to Z.
+     */
+    void add(CharSequence word) {
+        this.add(word, 0);
+    }
+
+    /*
+     * This method adds a word to a word list from 0 to 5. It returns true if no list had the word before.
+     */
+    boolean add(CharSequence word, int dictionary) {
+        if (dictionary < 0 || dictionary >= CompactTrie.MAX_DICTIONARIES) {
+            throw new IllegalArgumentException("A trie holds at most " + CompactTrie.MAX_DICTIONARIES + " word lists");
+        }
+        if (word.length() > CompactTrie.MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word " + word + " is longer than " + CompactTrie.MAX_WORD_LENGTH
+                    + " letters");
+        }
+        int node = 0;
+
+        for (int i = 0; i < word.length(); i++) {
+            //the character is converted into an int. 'A' is subtracted due to the default int values with characters
+            int letter = word.charAt(i) - 'A';
+            if (letter < 0 || letter >= Constants.ALPHABET_SIZE) {
+                throw new IllegalArgumentException("Word " + word + " contains a character that is not A-Z");
+            }
+            node = this.child(node, letter);
+        }
+        //once each letter is added the node is marked to indicate a full complete word in this list
+        boolean added = _dictionaries[node] == 0;
+        _dictionaries[node] |= 1 << dictionary;
+        _maxLength = Math.max(_maxLength, word.length());
+        return added;
+    }
+
+    /*
+     * This method finds the child of a node for the given letter, creating it if it does not exist yet. Siblings are
+     * kept in letter order so the packed trie can lay them out the same way.
+     */
+    private int child(int node, int letter) {
+        int previous = NONE;
+        int current = _firstChild[node];
+
+        while (current != NONE && _letter[current] < letter) {
+            previous = current;
+            current = _nextSibling[current];
+        }
+        if (current != NONE && _letter[current] == letter) {
+            return current;
+        }
+
+        int created = this.newNode(letter);
+        _nextSibling[created] = current;
+        if (previous == NONE) {
+            _firstChild[node] = created;
+        }
+        else {
+            _nextSibling[previous] = created;
+        }
+        return created;
+    }
+
+    /*
+     * This method adds a new node with no children, growing the arrays when they are full
+     */
+    private int newNode(int letter) {
+        //the packed trie only has room for this many node indexes next to the word list bits
+        if (_nodeCount > CompactTrie.INDEX_BITS) {
+            throw new IllegalStateException("The words need more than " + CompactTrie.INDEX_BITS + " trie nodes");
+        }
+        if (_nodeCount == _firstChild.length) {
+            int capacity = _nodeCount * 2;
+            _firstChild = Arrays.copyOf(_firstChild, capacity);
+            _nextSibling = Arrays.copyOf(_nextSibling, capacity);
+            _letter = Arrays.copyOf(_letter, capacity);
+            _dictionaries = Arrays.copyOf(_dictionaries, capacity);
+        }
+        int node = _nodeCount++;
+        _firstChild[node] = NONE;
+        _nextSibling[node] = NONE;
+        _letter[node] = (byte) letter;
+        _dictionaries[node] = 0;
+        return node;
+    }
+
+    /*
+     * This method packs the trie into a CompactTrie. Nodes are written in breadth first order so that all children of
+     * a node sit next to each other, which lets the CompactTrie find a child from a bitmask and a single index.
+     */
+    CompactTrie build() {
+        TrieBuildEvent event = new TrieBuildEvent();
+        event.begin();
+        int[] order = new int[_nodeCount];
+        int[] nodes = new int[_nodeCount * CompactTrie.STRIDE];
+        int head = 0;
+        int tail = 1;
+        order[0] = 0;
+
+        while (head < tail) {
+            int node = order[head];
+            int base = head * CompactTrie.STRIDE;
+            int mask = 0;
+
+            nodes[base + CompactTrie.FIRST_CHILD] = tail;
+            for (int child = _firstChild[node]; child != NONE; child = _nextSibling[child]) {
+                mask |= 1 << _letter[child];
+                order[tail++] = child;
+            }
+            mask |= _dictionaries[node] << CompactTrie.DICTIONARY_SHIFT;
+            nodes[base + CompactTrie.MASK] = mask;
+            head++;
+        }
+
+        //children always come after their parent, so going backwards every node sees what is below its children first
+        for (int node = _nodeCount - 1; node >= 0; node--) {
+            int base = node * CompactTrie.STRIDE;
+            int mask = nodes[base + CompactTrie.MASK];
+            int first = nodes[base + CompactTrie.FIRST_CHILD];
+            int reachable = mask >>> CompactTrie.DICTIONARY_SHIFT;
+            int depth = 0;
+            //a letter is only needed by every word below if every child's branch needs it, and none is needed at all
+            //once the path is a word itself
+            int required = reachable != 0 ? 0 : CompactTrie.LETTER_BITS;
+            int letters = mask & CompactTrie.LETTER_BITS;
+            for (int child = 0; letters != 0; child++, letters &= letters - 1) {
+                int childBase = (first + child) * CompactTrie.STRIDE;
+                int below = nodes[childBase + CompactTrie.BELOW];
+                reachable |= nodes[childBase + CompactTrie.FIRST_CHILD] >>> CompactTrie.DICTIONARY_SHIFT;
+                depth = Math.max(depth, (below >>> CompactTrie.DEPTH_SHIFT) + 1);
+                required &= Integer.lowestOneBit(letters) | (below & CompactTrie.LETTER_BITS);
+            }
+            nodes[base + CompactTrie.FIRST_CHILD] = first | reachable << CompactTrie.DICTIONARY_SHIFT;
+            nodes[base + CompactTrie.BELOW] = required | depth << CompactTrie.DEPTH_SHIFT;
+        }
+        CompactTrie trie = new CompactTrie(nodes, _nodeCount, _maxLength);
+        event.end();
+        if (event.shouldCommit()) {
+            event.nodeCount = _nodeCount;
+            event.trieBytes = trie.getMemoryFootprint();
+            event.commit();
+        }
+        return trie;
+    }
+
+    /*
+     * Getter method for the number of nodes added so far
+     */
+    int getNodeCount() {
+        return _nodeCount;
+    }
+}
@@ -0,0 +1,167 @@
+package boggle;
+
+import java.util.Arrays;
+
+/**
+ * This is the TrieCursor class. It walks a CompactTrie one letter at a time, the way a player builds a word by
+ * selecting tiles. Adding a letter follows one child link and removing one steps back to the node before it, so both
+ * take the same short time however long the selection is. After every step the cursor tells whether the letters so
+ * far start some word, spell a word, or cannot lead to any word at all.
+ *
+ * Letters added after a dead end are still counted so that removing them later lines back up with the selection. No
+ * String is made unless getWord is called, which lets a client check a very large number of selections cheaply. A
+ * cursor can be limited to some of the word lists in the trie, in which case words and prefixes from the other
+ * lists count as dead ends. A cursor is not thread safe; give each thread its own.
+ */
+public final class TrieCursor {
+
+    /*
+     * What the letters selected so far are in the dictionary
+     */
+    public enum State {
+        //the letters start at least one longer word but are not a word themselves
+        PREFIX,
+        //the letters spell a complete word, which may also start longer ones
+        WORD,
+        //no word starts with these letters
+        DEAD
+    }
+
+    private final CompactTrie _trie;
+    private final int _dictionaries;
+    //the trie node after each letter, _nodes[0] is the root
+    private final int[] _nodes;
+    private char[] _letters;
+    //how many letters have been added, and how many of those are still inside the trie
+    private int _length;
+    private int _liveLength;
+
+    /*
+     * Constructor for TrieCursor. The cursor starts with no letters at the root of the trie.
+     */
+    public TrieCursor(CompactTrie trie) {
+        this(trie, CompactTrie.ALL_DICTIONARIES);
+    }
+
+    /*
+     * Constructor for a TrieCursor that only knows the words of the word lists in the mask
+     */
+    public TrieCursor(CompactTrie trie, int dictionaries) {
+        _trie = trie;
+        _dictionaries = dictionaries;
+        _nodes = new int[trie.getMaxWordLength() + 1];
+        _nodes[0] = CompactTrie.ROOT;
+        _letters = new char[Math.max(16, trie.getMaxWordLength())];
+    }
+
+    /*
+     * This method adds a letter from 'A' to 'Z' and returns the new state
+     */
+    public State push(char letter) {
+        if (letter < 'A' || letter > 'Z') {
+            throw new IllegalArgumentException("Letter " + letter + " is not A-Z");
+        }
+        if (_length == _letters.length) {
+            _letters = Arrays.copyOf(_letters, _length * 2);
+        }
+        _letters[_length] = letter;
+
+        //once the cursor has left the trie every further letter is dead as well
+        if (_liveLength == _length) {
+            int node = _trie.child(_nodes[_liveLength], letter - 'A');
+            if (node != CompactTrie.NO_NODE && (_trie.reachableDictionaries(node) & _dictionaries) != 0) {
+                _nodes[++_liveLength] = node;
+            }
+        }
+        _length++;
+        return this.getState();
+    }
+
+    /*
+     * This method removes the last letter and returns the state of the letters that are left
+     */
+    public State pop() {
+        if (_length == 0) {
+            throw new IllegalStateException("There are no letters to remove");
+        }
+        if (_liveLength == _length) {
+            _liveLength--;
+        }
+        _length--;
+        return this.getState();
+    }
+
+    /*
+     * This method removes every letter so the cursor is back at the root
+     */
+    public void clear() {
+        _length = 0;
+        _liveLength = 0;
+    }
+
+    /*
+     * This method returns the state of the letters selected so far. No letters at all count as a prefix.
+     */
+    public State getState() {
+        if (_liveLength < _length) {
+            return State.DEAD;
+        }
+        return (_trie.dictionaries(_nodes[_liveLength]) & _dictionaries) != 0 ? State.WORD : State.PREFIX;
+    }
+
+    /*
+     * This method checks if the letters selected so far spell a word
+     */
+    public boolean isWord() {
+        return this.getState() == State.WORD;
+    }
+
+    /*
+     * This method checks if adding more letters could still lead to a word
+     */
+    public boolean canExtend() {
+        if (_liveLength < _length) {
+            return false;
+        }
+        int node = _nodes[_liveLength];
+        //words at the node itself do not count, only ones further down
+        for (int letter = 0; letter < Constants.ALPHABET_SIZE; letter++) {
+            int child = _trie.child(node, letter);
+            if (child != CompactTrie.NO_NODE && (_trie.reachableDictionaries(child) & _dictionaries) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * This method returns the trie node the letters lead to, or NO_NODE after a dead end
+     */
+    public int getNode() {
+        return _liveLength == _length ? _nodes[_liveLength] : CompactTrie.NO_NODE;
+    }
+
+    /*
+     * Getter method for the number of letters selected
+     */
+    public int length() {
+        return _length;
+    }
+
+    /*
+     * This method returns the letter at a position of the selection
+     */
+    public char letterAt(int index) {
+        if (index < 0 || index >= _length) {
+            throw new IndexOutOfBoundsException("Letter " + index + " of " + _length);
+        }
+        return _letters[index];
+    }
+
+    /*
+     * This method makes a String of the letters selected so far
+     */
+    public String getWord() {
+        return new String(_letters, 0, _length);
+    }
+}
@@ -0,0 +1,15 @@
+package boggle;
+
+/**
+ * This is the WordSink interface. A BoggleSolver can hand each word to a sink as soon as it finds it instead of
+ * collecting every word on the board, and the sink can stop the search once it has what it needs, for example the
+ * first word a hint should show.
+ */
+public interface WordSink {
+
+    /*
+     * This method is called once for each word on the board with the cells it was found on. The path array is the
+     * sink's to keep. Returning false stops the search.
+     */
+    boolean accept(String word, int[] path);
+}
@@ -0,0 +1,77 @@
+package boggle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for getting the dictionary into memory: reading the lines of dictionary.txt, building the trie from
+ * words that are already in memory, the whole text parse that the game does, and mapping a compiled image.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DictionaryBenchmark {
+
+    private byte[] _text;
+    private String[] _words;
+    private File _image;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream stream = Dictionary.class.getResourceAsStream("/" + Dictionary.DEFAULT_FILE)) {
+            _text = stream.readAllBytes();
+        }
+
+        ArrayList<String> words = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(_text),
+                StandardCharsets.US_ASCII));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                words.add(line.trim());
+            }
+        }
+        _words = words.toArray(new String[0]);
+
+        _image = File.createTempFile("dictionary", ".bin");
+        _image.deleteOnExit();
+        DictionaryImage.write(Dictionary.parse(new ByteArrayInputStream(_text)), _image);
+    }
+
+    @Benchmark
+    public int readWordList() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(_text),
+                StandardCharsets.US_ASCII));
+        int count = 0;
+        while (reader.readLine() != null) {
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public CompactTrie buildTrie() {
+        TrieBuilder builder = new TrieBuilder();
+        for (String word : _words) {
+            builder.add(word);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public Dictionary parseDictionary() throws IOException {
+        return Dictionary.parse(new ByteArrayInputStream(_text));
+    }
+
+    @Benchmark
+    public Dictionary mapImage() throws IOException {
+        return DictionaryImage.map(_image, null, System.nanoTime());
+    }
+}
@@ -0,0 +1,54 @@
+package boggle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for one large synthetic board, searched on the calling thread, on a fork/join pool, and by the
+ * LargeBoardSolver, which keeps its path on an explicit stack instead of recursing
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LargeBoardBenchmark {
+
+    @Param({"32"})
+    public int size;
+
+    private char[][] _board;
+    private ForkJoinPool _pool;
+
+    @Setup
+    public void setUp() throws IOException {
+        Dictionary.getInstance();
+        _board = new BoardGenerator(new SplittableRandom(size)).generate(size);
+        _pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        _pool.shutdown();
+    }
+
+    @Benchmark
+    public Solution sequential() throws IOException {
+        return new BoggleSolver(_board, null).getSolution();
+    }
+
+    @Benchmark
+    public Solution parallel() throws IOException {
+        return new BoggleSolver(_board, _pool).getSolution();
+    }
+
+    @Benchmark
+    public Solution iterative() throws IOException {
+        return new LargeBoardSolver(_board, false).getSolution();
+    }
+}
@@ -0,0 +1,73 @@
+package boggle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for claiming words in a Round shared by every benchmark thread, with random players claiming random words
+ * of one 4x4 board and one claim in ten for a word that is not on it. Run with -t n to see how claiming scales with
+ * the number of threads. Each iteration starts a new round, but most claims soon become repeats.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RoundBenchmark {
+
+    private static final long SEED = 20240601L;
+
+    @Param({"1000"})
+    public int players;
+
+    private Solution _solution;
+    private Round _round;
+    private Round.Player[] _players;
+
+    @Setup
+    public void setUp() throws IOException {
+        Dictionary.getInstance();
+        char[][] board = new BoardGenerator(new SplittableRandom(SEED)).generate(BoardGenerator.DICE_BOARD_SIZE);
+        _solution = new BoggleSolver(board, null).getSolution();
+    }
+
+    @Setup(Level.Iteration)
+    public void startRound() {
+        _round = new Round(_solution);
+        _players = new Round.Player[players];
+        for (int n = 0; n < players; n++) {
+            _players[n] = _round.join("player" + n);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void finishRound() {
+        _round.finish();
+    }
+
+    /*
+     * The random numbers for one benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class Claims {
+
+        private SplittableRandom _random;
+
+        @Setup
+        public void setUp() {
+            _random = new SplittableRandom(Thread.currentThread().getId());
+        }
+    }
+
+    @Benchmark
+    public Round.Claim claim(Claims claims) {
+        SplittableRandom random = claims._random;
+        Round.Player player = _players[random.nextInt(_players.length)];
+        int n = random.nextInt(_solution.size() + _solution.size() / 9 + 1);
+        return _round.claim(player, n < _solution.size() ? _solution.getWords().get(n) : "QXZQ");
+    }
+}
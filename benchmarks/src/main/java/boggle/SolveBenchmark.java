@@ -0,0 +1,78 @@
+package boggle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for solving boards of each size the game offers. The boards are made by the BoardGenerator from a fixed
+ * seed, so 4x4 boards are rolled from the real dice, and every run solves exactly the same boards in turn.
+ * WithoutBitBoard solves the same boards with the BitBoard search turned off, to compare it with the plain search.
+ * check looks up a few words on each board with a LazySolver, the way the game checks words without solving the board.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SolveBenchmark {
+
+    private static final int BOARDS = 256;
+    private static final long SEED = 20240601L;
+    private static final int CHECKED_WORDS = 10;
+
+    @Param({"3", "4", "5", "6"})
+    public int size;
+
+    private char[][][] _boards;
+    private String[][] _words;
+    private int _next;
+
+    @Setup
+    public void setUp() throws IOException {
+        Dictionary.getInstance();
+        BoardGenerator generator = new BoardGenerator(new SplittableRandom(SEED));
+        _boards = new char[BOARDS][][];
+        _words = new String[BOARDS][];
+        for (int n = 0; n < BOARDS; n++) {
+            _boards[n] = generator.generate(size);
+            //up to ten words that are on the board, spread through the list, and one that is not
+            List<String> words = new BoggleSolver(_boards[n], null).getWords();
+            int count = Math.min(CHECKED_WORDS, words.size());
+            _words[n] = new String[count + 1];
+            for (int m = 0; m < count; m++) {
+                _words[n][m] = words.get(m * words.size() / count);
+            }
+            _words[n][count] = "QUIXOTIC";
+        }
+    }
+
+    @Benchmark
+    public Solution solve() throws IOException {
+        char[][] board = _boards[_next];
+        _next = (_next + 1) % BOARDS;
+        return new BoggleSolver(board, null).getSolution();
+    }
+
+    @Benchmark
+    public int check() throws IOException {
+        LazySolver solver = new LazySolver(_boards[_next]);
+        int score = 0;
+        for (String word : _words[_next]) {
+            score += solver.getScore(word);
+        }
+        _next = (_next + 1) % BOARDS;
+        return score;
+    }
+
+    /*
+     * The same benchmark in a JVM where boards are searched one neighbor at a time, as boards over 64 cells are
+     */
+    @Fork(value = 1, jvmArgsAppend = "-D" + BoggleSolver.BIT_BOARD_PROPERTY + "=false")
+    public static class WithoutBitBoard extends SolveBenchmark {
+    }
+}
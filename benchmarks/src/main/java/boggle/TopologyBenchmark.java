@@ -0,0 +1,63 @@
+package boggle;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for visiting every neighbor of every cell, once with the four bounds checks the solver used to make on
+ * every step and once with the neighbor lists a BoardTopology works out ahead of time
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TopologyBenchmark {
+
+    @Param({"4", "6"})
+    public int size;
+
+    private int[] _letters;
+    private BoardTopology _topology;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(size);
+        _letters = new int[size * size];
+        for (int cell = 0; cell < _letters.length; cell++) {
+            _letters[cell] = random.nextInt(Constants.ALPHABET_SIZE);
+        }
+        _topology = BoardTopology.of(size);
+    }
+
+    @Benchmark
+    public int boundsChecks() {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                for (int a = -1; a <= 1; a++) {
+                    for (int b = -1; b <= 1; b++) {
+                        if (i + a < size && j + b < size && i + a >= 0 && j + b >= 0 && !(a == 0 && b == 0)) {
+                            sum += _letters[(i + a) * size + j + b];
+                        }
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int precomputed() {
+        int sum = 0;
+        for (int cell = 0; cell < _letters.length; cell++) {
+            for (int neighbor : _topology.neighbors(cell)) {
+                sum += _letters[neighbor];
+            }
+        }
+        return sum;
+    }
+}